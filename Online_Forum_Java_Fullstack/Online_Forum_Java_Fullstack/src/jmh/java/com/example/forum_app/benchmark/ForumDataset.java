@@ -0,0 +1,125 @@
+package com.example.forum_app.benchmark;
+
+import com.example.forum_app.ForumAppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it with a
+ * dataset of the requested size through plain JDBC batches (far faster than going through
+ * the service layer). Users are named user0..userN with password "password".
+ */
+public final class ForumDataset implements AutoCloseable {
+
+    public static final int POSTS_PER_THREAD = 50;
+    public static final String PASSWORD = "password";
+    private static final int BATCH = 5_000;
+
+    private final ConfigurableApplicationContext context;
+    private final int posts;
+    private final int threads;
+    private final int users;
+
+    private ForumDataset(ConfigurableApplicationContext context, int posts) {
+        this.context = context;
+        this.posts = posts;
+        this.threads = Math.max(1, posts / POSTS_PER_THREAD);
+        this.users = Math.max(1_000, posts / 10);
+    }
+
+    public static ForumDataset start(int posts) {
+        return start(posts, Map.of());
+    }
+
+    public static ForumDataset start(int posts, Map<String, Object> extraProperties) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", "0");
+        props.put("spring.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("spring.h2.console.enabled", "false");
+        props.put("spring.thymeleaf.cache", "true");
+        props.put("forum.search.rebuild-on-startup", "false");
+        props.put("debug", "false");
+        props.put("logging.level.root", "WARN");
+        for (String logger : List.of("org.springframework.web", "org.springframework.security", "org.hibernate.SQL",
+                "org.hibernate.type.descriptor.sql.BasicBinder", "org.springframework.security.authentication",
+                "org.springframework.security.web.authentication", "org.springframework.security.core.userdetails",
+                "forum_app")) {
+            props.put("logging.level." + logger, "WARN");
+        }
+        props.putAll(extraProperties);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ForumAppApplication.class)
+            .properties(props)
+            .run();
+        ForumDataset dataset = new ForumDataset(context, posts);
+        dataset.seed();
+        return dataset;
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    public int posts() { return posts; }
+
+    public int threads() { return threads; }
+
+    public int users() { return users; }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private void seed() {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        String passwordHash = bean(PasswordEncoder.class).encode(PASSWORD);
+        Long categoryId = jdbc.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+        LocalDateTime base = LocalDateTime.now().minusYears(1);
+
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "user" + i, "user" + i + "@example.com", passwordHash, "USER"});
+            rows = flushIfFull(jdbc, "INSERT INTO users (id, username, email, password, role) VALUES (?, ?, ?, ?, ?)", rows, i == users);
+        }
+        for (int t = 1; t <= threads; t++) {
+            Timestamp created = Timestamp.valueOf(base.plusMinutes(t));
+            rows.add(new Object[]{t, "Benchmark thread " + t, "Seeded thread body number " + t + " for benchmarking.",
+                categoryId, "user" + (t % users + 1), created, POSTS_PER_THREAD, created, created});
+            rows = flushIfFull(jdbc, "INSERT INTO forum_threads (id, title, content, category_id, author, created_at, reply_count, last_post_at, delete_pending, revision, last_modified_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, 0, ?)", rows, t == threads);
+        }
+        for (int p = 1; p <= posts; p++) {
+            int thread = (p - 1) / POSTS_PER_THREAD % threads + 1;
+            rows.add(new Object[]{p, "Seeded reply number " + p + " in thread " + thread + ".", thread,
+                "user" + (p % users + 1), Timestamp.valueOf(base.plusMinutes(thread).plusSeconds(p % POSTS_PER_THREAD))});
+            rows = flushIfFull(jdbc, "INSERT INTO posts (id, content, thread_id, author, created_at) VALUES (?, ?, ?, ?, ?)", rows, p == posts);
+        }
+        // Keep the pooled sequences clear of the explicit ids above.
+        jdbc.execute("ALTER SEQUENCE users_seq RESTART WITH " + (users + 1_000));
+        jdbc.execute("ALTER SEQUENCE forum_threads_seq RESTART WITH " + (threads + 1_000));
+        jdbc.execute("ALTER SEQUENCE posts_seq RESTART WITH " + (posts + 1_000));
+    }
+
+    private static List<Object[]> flushIfFull(JdbcTemplate jdbc, String sql, List<Object[]> rows, boolean last) {
+        if (rows.size() >= BATCH || (last && !rows.isEmpty())) {
+            jdbc.batchUpdate(sql, rows);
+            return new ArrayList<>(BATCH);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.forum_app.benchmark;
+
+import com.example.forum_app.model.Category;
+import com.example.forum_app.model.CursorPage;
+import com.example.forum_app.model.ForumThread;
+import com.example.forum_app.model.Post;
+import com.example.forum_app.model.PostSummary;
+import com.example.forum_app.model.ThreadSummary;
+import com.example.forum_app.service.ForumService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ForumService read and write paths against a seeded dataset. Writes all go to one extra
+ * thread so they do not skew the read benchmarks; createPostsBatched vs. createPostsOneByOne
+ * compares the bulk-ingest path with per-call inserts (both report time per post).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ForumServiceBenchmark {
+
+    private static final int INGEST_BATCH = 50;
+
+    @Param({"1000", "100000", "1000000"})
+    public int posts;
+
+    private ForumDataset dataset;
+    private ForumService forumService;
+    private ForumThread writeThread;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = ForumDataset.start(posts);
+        forumService = dataset.bean(ForumService.class);
+        ForumThread thread = new ForumThread("Benchmark write target", "Replies written by the benchmark land here.",
+            null, "user1");
+        Category category = new Category();
+        category.setId(forumService.getAllCategories().get(0).getId());
+        thread.setCategory(category);
+        writeThread = forumService.createThread(thread, "user1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public List<ThreadSummary> getAllThreads() {
+        return forumService.getAllThreads();
+    }
+
+    @Benchmark
+    public CursorPage<ThreadSummary> getThreadPage() {
+        return forumService.getThreadPage(null, null, ForumService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Post> getPostsByThread() {
+        return forumService.getPostsByThread(randomThreadId());
+    }
+
+    @Benchmark
+    public CursorPage<PostSummary> getPostPage() {
+        return forumService.getPostPage(randomThreadId(), null, null, ForumService.DEFAULT_REPLY_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Post createPost() {
+        return forumService.createPost(newPost(), writeThread, "user1");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INGEST_BATCH)
+    public Post createPostsOneByOne() {
+        Post last = null;
+        for (int i = 0; i < INGEST_BATCH; i++) {
+            last = forumService.createPost(newPost(), writeThread, "user1");
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INGEST_BATCH)
+    public List<Post> createPostsBatched() {
+        List<Post> batch = new ArrayList<>(INGEST_BATCH);
+        for (int i = 0; i < INGEST_BATCH; i++) {
+            batch.add(newPost());
+        }
+        return forumService.createPosts(writeThread.getId(), batch, "user1");
+    }
+
+    private long randomThreadId() {
+        return ThreadLocalRandom.current().nextInt(dataset.threads()) + 1;
+    }
+
+    private static Post newPost() {
+        Post post = new Post();
+        post.setContent("Benchmark reply " + ThreadLocalRandom.current().nextLong());
+        return post;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.forum_app.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end HTTP load: many concurrent clients reading thread pages from one logged-in session,
+ * with the server on platform threads (Tomcat's pool) or on virtual threads. SampleTime reports
+ * the latency distribution (p99 included) and Throughput the request rate; compare the two
+ * executor values. Raise the client count with -t, e.g. -Djmh.args="RequestLoad -t 400".
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Threads(256)
+@State(Scope.Benchmark)
+public class RequestLoadBenchmark {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"100000"})
+    public int posts;
+
+    private ForumDataset dataset;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        dataset = ForumDataset.start(posts, Map.of("spring.threads.virtual.enabled", executor.equals("virtual")));
+        baseUrl = "http://localhost:" + dataset.port();
+        client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        login();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        dataset.close();
+    }
+
+    @Benchmark
+    public int viewThread() throws IOException, InterruptedException {
+        long threadId = ThreadLocalRandom.current().nextInt(dataset.threads()) + 1;
+        return get("/thread/" + threadId).statusCode();
+    }
+
+    @Benchmark
+    public int listThreads() throws IOException, InterruptedException {
+        return get("/thread/").statusCode();
+    }
+
+    private void login() throws IOException, InterruptedException {
+        Matcher csrf = CSRF.matcher(get("/login").body());
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token on the login page");
+        }
+        String form = "username=user1&password=" + ForumDataset.PASSWORD +
+            "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (location.contains("error")) {
+            throw new IllegalStateException("Login failed: " + location);
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+}
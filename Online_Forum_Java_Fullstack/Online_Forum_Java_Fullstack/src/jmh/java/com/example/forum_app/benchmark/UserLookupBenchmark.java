@@ -0,0 +1,80 @@
+package com.example.forum_app.benchmark;
+
+import com.example.forum_app.model.User;
+import com.example.forum_app.repository.UserRepository;
+import com.example.forum_app.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login-path lookups: UserService.loadUserByUsername and the UserRepository queries it and
+ * registration rely on. The users table grows with the dataset (posts / 10, at least 1000).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class UserLookupBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int posts;
+
+    private ForumDataset dataset;
+    private UserService userService;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = ForumDataset.start(posts);
+        userService = dataset.bean(UserService.class);
+        userRepository = dataset.bean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userService.loadUserByUsername(randomUser());
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername() {
+        return userRepository.findByUsername(randomUser());
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userRepository.findByEmail(randomUser() + "@example.com");
+    }
+
+    @Benchmark
+    public List<User> findByUsernameContaining() {
+        return userRepository.findByUsernameContainingIgnoreCase(randomUser());
+    }
+
+    private String randomUser() {
+        return "user" + (ThreadLocalRandom.current().nextInt(dataset.users()) + 1);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.forum_app.config;
+
+import com.example.forum_app.service.UserService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Caches are Caffeine-backed and bounded; see spring.cache.* in application.properties.
+// Hit/miss counts are published as cache.gets{result=hit|miss} on /actuator/metrics.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Login caches need short TTLs of their own rather than the 1h reference-data spec.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> authCaches(
+            @Value("${forum.auth.principal-cache.max-size:10000}") long principalMaxSize,
+            @Value("${forum.auth.principal-cache.ttl:10m}") Duration principalTtl,
+            @Value("${forum.auth.unknown-user-cache.max-size:10000}") long unknownMaxSize,
+            @Value("${forum.auth.unknown-user-cache.ttl:1m}") Duration unknownTtl) {
+        return manager -> {
+            manager.registerCustomCache(UserService.PRINCIPALS, Caffeine.newBuilder()
+                .maximumSize(principalMaxSize).expireAfterWrite(principalTtl).recordStats().build());
+            manager.registerCustomCache(UserService.UNKNOWN_USERS, Caffeine.newBuilder()
+                .maximumSize(unknownMaxSize).expireAfterWrite(unknownTtl).recordStats().build());
+        };
+    }
+}
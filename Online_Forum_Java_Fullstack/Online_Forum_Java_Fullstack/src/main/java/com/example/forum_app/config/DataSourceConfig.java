@@ -0,0 +1,44 @@
+package com.example.forum_app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Puts ConnectionLimitingDataSource in front of the Hikari pool, sized to its maximum-pool-size.
+// On by default so platform- and virtual-thread mode behave the same; it matters most with
+// spring.threads.virtual.enabled=true, where request concurrency is no longer bounded by Tomcat.
+@Configuration
+@ConditionalOnProperty(name = "forum.datasource.limit-connections", havingValue = "true", matchIfMissing = true)
+public class DataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Bean
+    public static BeanPostProcessor connectionLimiter(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(hikari,
+                    hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("forum.datasource.limiter.in-use", limited, ConnectionLimitingDataSource::getInUse)
+                        .description("Connections handed out through the limiter").register(registry);
+                    Gauge.builder("forum.datasource.limiter.waiting", limited, ConnectionLimitingDataSource::getWaiting)
+                        .description("Threads parked waiting for a connection").register(registry);
+                });
+                log.info("Limiting database connections to {}", limited.getLimit());
+                return limited;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.forum_app.config;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+// Keeps plain page views from rewriting the session row. Spring Session saves a session whenever
+// something on it changed, and the last-access time it moves on every request counts, so each
+// request would cost an UPDATE against the shared store. Here the new time only reaches the
+// underlying session once it is at least writeInterval past the stored one; in between, a request
+// that changes no attributes writes nothing. Sessions may therefore expire up to writeInterval
+// before their nominal timeout.
+public class LastAccessThrottlingSessionRepository<S extends Session>
+        implements SessionRepository<LastAccessThrottlingSessionRepository.ThrottledSession<S>> {
+
+    private final SessionRepository<S> delegate;
+    private final Duration writeInterval;
+
+    public LastAccessThrottlingSessionRepository(SessionRepository<S> delegate, Duration writeInterval) {
+        this.delegate = delegate;
+        this.writeInterval = writeInterval;
+    }
+
+    @Override
+    public ThrottledSession<S> createSession() {
+        return new ThrottledSession<>(delegate.createSession(), writeInterval);
+    }
+
+    @Override
+    public void save(ThrottledSession<S> session) {
+        delegate.save(session.delegate);
+    }
+
+    @Override
+    public ThrottledSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session == null ? null : new ThrottledSession<>(session, writeInterval);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    public static final class ThrottledSession<S extends Session> implements Session {
+        private final S delegate;
+        private final Duration writeInterval;
+
+        private ThrottledSession(S delegate, Duration writeInterval) {
+            this.delegate = delegate;
+            this.writeInterval = writeInterval;
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            if (lastAccessedTime.isBefore(delegate.getLastAccessedTime().plus(writeInterval))) {
+                return;
+            }
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public String getId() { return delegate.getId(); }
+
+        @Override
+        public String changeSessionId() { return delegate.changeSessionId(); }
+
+        @Override
+        public <T> T getAttribute(String attributeName) { return delegate.getAttribute(attributeName); }
+
+        @Override
+        public Set<String> getAttributeNames() { return delegate.getAttributeNames(); }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) { delegate.setAttribute(attributeName, attributeValue); }
+
+        @Override
+        public void removeAttribute(String attributeName) { delegate.removeAttribute(attributeName); }
+
+        @Override
+        public Instant getCreationTime() { return delegate.getCreationTime(); }
+
+        @Override
+        public Instant getLastAccessedTime() { return delegate.getLastAccessedTime(); }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) { delegate.setMaxInactiveInterval(interval); }
+
+        @Override
+        public Duration getMaxInactiveInterval() { return delegate.getMaxInactiveInterval(); }
+
+        @Override
+        public boolean isExpired() { return delegate.isExpired(); }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.forum_app.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Controllers and ForumService carry @Timed (forum.web / forum.service, tagged by class and
+// method); management.observations.annotations.enabled turns on the aspect. Hibernate
+// statistics are bound as hibernate.* meters by Boot once generate_statistics is on.
+@Configuration
+public class MetricsConfig {
+
+    // Installs the per-request statement counter unless an inspector is configured already.
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspector() {
+        return properties -> properties.putIfAbsent("hibernate.session_factory.statement_inspector", new QueryCountInspector());
+    }
+}
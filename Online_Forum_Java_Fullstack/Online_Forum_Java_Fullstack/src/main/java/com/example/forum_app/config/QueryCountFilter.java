@@ -0,0 +1,56 @@
+package com.example.forum_app.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Per-request SQL budget: records how many statements each request issued (forum.request.queries)
+// and warns when one goes past forum.metrics.query-warn-threshold, which is almost always an N+1.
+// Handlers that page through data on purpose (the whole-thread view reads replies in chunks
+// while it renders) set STREAMED_ATTRIBUTE; those are still recorded but never warned about.
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String STREAMED_ATTRIBUTE = QueryCountFilter.class.getName() + ".streamed";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final DistributionSummary queries;
+    private final int warnThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${forum.metrics.query-warn-threshold:20}") int warnThreshold) {
+        this.queries = DistributionSummary.builder("forum.request.queries")
+            .description("SQL statements issued per request")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountInspector.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int count = QueryCountInspector.count();
+            QueryCountInspector.clear();
+            queries.record(count);
+            if (count > warnThreshold && request.getAttribute(STREAMED_ATTRIBUTE) == null) {
+                log.warn("Possible N+1: {} {} issued {} SQL statements (threshold {})",
+                    request.getMethod(), request.getRequestURI(), count, warnThreshold);
+            }
+        }
+    }
+}
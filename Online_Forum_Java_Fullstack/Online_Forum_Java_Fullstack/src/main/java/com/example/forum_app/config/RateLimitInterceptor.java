@@ -0,0 +1,65 @@
+package com.example.forum_app.config;
+
+import com.example.forum_app.service.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+// Throttles the write endpoints that end in ForumService.createThread / createPost, per user
+// and (with looser limits) per client IP. The IP is the real client's once
+// server.forward-headers-strategy lets Tomcat read X-Forwarded-For from the load balancer.
+// Over the limit the request gets 429 with Retry-After and never reaches the service.
+// Registered for the write paths in WebConfig.
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter threads;
+    private final RateLimiter replies;
+
+    public RateLimitInterceptor(MeterRegistry meterRegistry,
+                                @Value("${forum.ratelimit.threads-per-minute:2}") int threadsPerMinute,
+                                @Value("${forum.ratelimit.thread-burst:3}") int threadBurst,
+                                @Value("${forum.ratelimit.replies-per-minute:10}") int repliesPerMinute,
+                                @Value("${forum.ratelimit.reply-burst:5}") int replyBurst,
+                                @Value("${forum.ratelimit.ip.threads-per-minute:60}") int ipThreadsPerMinute,
+                                @Value("${forum.ratelimit.ip.thread-burst:30}") int ipThreadBurst,
+                                @Value("${forum.ratelimit.ip.replies-per-minute:300}") int ipRepliesPerMinute,
+                                @Value("${forum.ratelimit.ip.reply-burst:100}") int ipReplyBurst) {
+        this.threads = new RateLimiter("thread", threadsPerMinute, threadBurst, ipThreadsPerMinute, ipThreadBurst, meterRegistry);
+        this.replies = new RateLimiter("reply", repliesPerMinute, replyBurst, ipRepliesPerMinute, ipReplyBurst, meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        RateLimiter limiter = request.getRequestURI().endsWith("/reply") ? replies : threads;
+        Principal principal = request.getUserPrincipal();
+        long waitNanos = limiter.tryAcquire(principal != null ? principal.getName() : null, request.getRemoteAddr());
+        if (waitNanos == 0) {
+            return true;
+        }
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("You are posting too fast. Try again in " + retryAfter + " seconds.");
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${forum.ratelimit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        threads.evictIdle();
+        replies.evictIdle();
+    }
+}
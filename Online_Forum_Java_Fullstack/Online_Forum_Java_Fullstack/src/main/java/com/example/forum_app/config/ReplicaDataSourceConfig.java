@@ -0,0 +1,103 @@
+package com.example.forum_app.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.session.jdbc.config.annotation.SpringSessionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read replicas, switched on by listing their JDBC URLs in forum.datasource.replica.urls.
+// The primary pool is built here from spring.datasource.* (DataSourceConfig still limits it) and
+// the DataSource JPA uses becomes a LazyConnectionDataSourceProxy over ReplicaRoutingDataSource.
+// Replica pools copy the primary's settings and credentials, with a short connection timeout so
+// a dead replica costs one quick failure before reads fall back to the primary.
+// Spring Session gets the primary pool directly (@SpringSessionDataSource): sessions are always
+// written, never worth routing, and the routing itself reads the session for the pin.
+@Configuration
+@ConditionalOnProperty(name = "forum.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    @Bean
+    @SpringSessionDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Value("${forum.datasource.replica.urls}") List<String> urls,
+            @Value("${forum.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${forum.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+            @Value("${forum.datasource.replica.sticky-ms:10000}") long stickyMillis,
+            @Value("${forum.datasource.replica.connection-timeout-ms:1000}") long connectionTimeoutMillis,
+            ObjectProvider<MeterRegistry> meterRegistry) throws SQLException {
+        HikariDataSource template = primary.unwrap(HikariDataSource.class);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            template.copyStateTo(config);
+            config.setPoolName("replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setConnectionTimeout(connectionTimeoutMillis);
+            config.setInitializationFailTimeout(-1);  // start even if a replica is down
+            config.setMetricRegistry(registry);  // hikaricp.* meters tagged pool=replica-N
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagMillis, stickyMillis);
+        if (registry != null) {
+            for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+                Gauge.builder("forum.datasource.replica.usable", replica, r -> r.isUsable() ? 1 : 0)
+                    .description("1 while reads are routed to the replica").tag("replica", replica.getName()).register(registry);
+                Gauge.builder("forum.datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagMillis)
+                    .description("Replica lag at the last check, -1 if unreachable").baseUnit("milliseconds")
+                    .tag("replica", replica.getName()).register(registry);
+            }
+            Gauge.builder("forum.datasource.replica.pinned-users", routing, ReplicaRoutingDataSource::getPinnedUsers)
+                .description("Users pinned to the primary after a write made outside a web request (web requests pin their session)").register(registry);
+        }
+        log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Spring holds a session's connection until the session closes, which with open-in-view is the
+    // whole request: its first query would decide the target for every transaction after it.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.forum_app.config;
+
+import com.example.forum_app.service.AfterCommit;
+import com.example.forum_app.service.PrimaryReads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a read replica and everything else to the primary
+// (including reads wrapped in PrimaryReads).
+// A replica is used only while its last health check found it reachable and no further behind
+// than maxLagMillis (lagQuery, when set, must return the replica's lag in milliseconds); when no
+// replica qualifies, or handing out a replica connection fails, reads fall back to the primary.
+// After a user's read-write transaction commits, that user's reads stay on the primary for
+// stickyMillis so they always see what they just wrote. The pin is kept in the HTTP session
+// (a wall-clock deadline under PINNED_UNTIL), which lives in the shared session store, so the
+// next request is pinned whichever node serves it; work outside a web request falls back to a
+// node-local pin per username.
+// The read-only flag is only known once the transaction has begun, so this must sit behind a
+// LazyConnectionDataSourceProxy, which defers fetching the connection to the first statement.
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    public static final String PINNED_UNTIL = ReplicaRoutingDataSource.class.getName() + ".pinnedUntil";
+
+    @FunctionalInterface
+    private interface Opener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long stickyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ConcurrentMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    String lagQuery, long maxLagMillis, long stickyMillis) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public int getPinnedUsers() {
+        return pinnedUntil.size();
+    }
+
+    // Probes every replica and decides which of them reads may use until the next check.
+    @Scheduled(fixedDelayString = "${forum.datasource.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.update(measureLag(connection));
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection route(Opener opener) throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica != null) {
+            try {
+                return opener.open(replica.dataSource);
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        pinAfterCommit();
+        return opener.open(primary);
+    }
+
+    // Round-robin over the usable replicas; null means the primary.
+    private Replica chooseReplica() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PrimaryReads.isActive()) {
+            return null;
+        }
+        String user = currentUser();
+        if (user != null && isPinned(user)) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void pinAfterCommit() {
+        if (replicas.isEmpty() || stickyNanos <= 0
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String user = currentUser();
+        if (user != null) {
+            AfterCommit.run(() -> {
+                RequestAttributes request = RequestContextHolder.getRequestAttributes();
+                if (request != null) {
+                    long until = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(stickyNanos);
+                    request.setAttribute(PINNED_UNTIL, until, RequestAttributes.SCOPE_SESSION);
+                } else {
+                    pinnedUntil.put(user, System.nanoTime() + stickyNanos);
+                }
+            });
+        }
+    }
+
+    private boolean isPinned(String user) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(PINNED_UNTIL, RequestAttributes.SCOPE_SESSION) instanceof Long until
+                && until > System.currentTimeMillis()) {
+            return true;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(user, until);
+        return false;
+    }
+
+    private long measureLag(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(lagQuery)) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection failed validation");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    throw new SQLException("Lag query returned no row");
+                }
+                long lag = rs.getLong(1);
+                return rs.wasNull() ? Long.MAX_VALUE : lag;  // NULL: replica has not caught up at all
+            }
+        }
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+
+    public final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+        private volatile long lagMillis = -1;  // -1 while unreachable or not yet checked
+        private volatile boolean checked;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() { return name; }
+
+        public boolean isUsable() { return usable; }
+
+        public long getLagMillis() { return lagMillis; }
+
+        private void update(long lag) {
+            lagMillis = lag;
+            boolean nowUsable = lag <= maxLagMillis;
+            if (nowUsable != usable || !checked) {
+                if (nowUsable) {
+                    log.info("Replica {} is in rotation (lag {}ms)", name, lag);
+                } else {
+                    log.warn("Replica {} is {}ms behind (max {}ms), reading from the primary instead", name, lag, maxLagMillis);
+                }
+            }
+            usable = nowUsable;
+            checked = true;
+        }
+
+        private void markDown(Exception e) {
+            if (usable || !checked) {
+                log.warn("Replica {} is unavailable, reading from the primary instead: {}", name, e.getMessage());
+            }
+            usable = false;
+            lagMillis = -1;
+            checked = true;
+        }
+    }
+}
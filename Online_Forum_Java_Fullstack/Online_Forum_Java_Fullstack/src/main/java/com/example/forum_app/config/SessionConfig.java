@@ -0,0 +1,39 @@
+package com.example.forum_app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+
+// HTTP sessions live in the app's database through Spring Session JDBC, auto-configured from the
+// spring-session-jdbc dependency (another Spring Session store plugs in the same way), so any node
+// can serve any request and a restart logs nobody out. Whatever store is in use gets wrapped in
+// LastAccessThrottlingSessionRepository so routine requests do not rewrite their session.
+@Configuration
+public class SessionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionConfig.class);
+
+    @Bean
+    public static BeanPostProcessor lastAccessThrottling(
+            @Value("${forum.session.last-access-write-interval:60s}") Duration writeInterval) {
+        return new BeanPostProcessor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof SessionRepository<?>) || bean instanceof LastAccessThrottlingSessionRepository<?>
+                        || writeInterval.isZero()) {
+                    return bean;
+                }
+                log.info("Writing session last-access times at most every {}", writeInterval);
+                return new LastAccessThrottlingSessionRepository<>((SessionRepository<Session>) bean, writeInterval);
+            }
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.forum_app.controller;
 import com.example.forum_app.model.User;
 import com.example.forum_app.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,8 +15,11 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;  // Added
 import jakarta.validation.Valid;
 
 @Controller
+@Timed("forum.web")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
 
@@ -30,18 +36,16 @@ public class AuthController {
 
     @PostMapping("/register")
     public String registerUser(@ModelAttribute("user") @Valid User user, BindingResult result, Model model, RedirectAttributes redirectAttributes) {  // Added RedirectAttributes
-        System.out.println("Registration attempt for: " + user.getUsername() + ", Email: " + user.getEmail());
         if (result.hasErrors()) {
-            System.out.println("Validation errors: " + result.getAllErrors());
+            log.debug("Registration rejected for {}: {}", user.getUsername(), result.getAllErrors());
             return "register";
         }
         try {
             userService.registerUser(user);
-            System.out.println("Registration successful, redirecting to login");
             redirectAttributes.addFlashAttribute("successMessage", "Registration successful! Please log in.");  // Flash attribute for redirect
             return "redirect:/login";  // Redirect to navigate to login page
         } catch (Exception e) {
-            System.err.println("Registration error: " + e.getMessage());
+            log.warn("Registration failed for {}: {}", user.getUsername(), e.getMessage());
             model.addAttribute("errorMessage", "Registration failed: " + e.getMessage());
             return "register";
         }
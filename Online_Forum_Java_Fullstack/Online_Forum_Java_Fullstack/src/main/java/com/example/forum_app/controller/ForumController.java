@@ -1,31 +1,73 @@
 package com.example.forum_app.controller;
 
+import com.example.forum_app.config.QueryCountFilter;
+import com.example.forum_app.model.CursorPage;
 import com.example.forum_app.model.ForumThread;
 import com.example.forum_app.model.Post;
+import com.example.forum_app.model.ThreadView;
 import com.example.forum_app.model.Category;
+import com.example.forum_app.model.ThreadStamp;
+import com.example.forum_app.model.ThreadSummary;
 import com.example.forum_app.service.ForumService;
+import com.example.forum_app.service.NotificationService;
+import com.example.forum_app.service.ReadTracker;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
 
 @Controller  // Removed @RequestMapping("/thread")
+@Timed("forum.web")
 public class ForumController {
 
     @Autowired
     private ForumService forumService;
 
+    @Autowired
+    private ReadTracker readTracker;
+
+    @Autowired
+    private NotificationService notificationService;
+
   @GetMapping({"/thread", "/thread/"})  // Handles both /thread and /thread/
-public String home(Model model, Authentication auth, RedirectAttributes redirectAttributes) {
+public String home(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                   @RequestParam(required = false) Long beforeId,
+                   @RequestParam(required = false) Long category,
+                   @RequestParam(defaultValue = "" + ForumService.DEFAULT_PAGE_SIZE) int size,
+                   Model model, Authentication auth, RedirectAttributes redirectAttributes) {
     if (auth != null && auth.isAuthenticated()) {
+        CursorPage<ThreadSummary> page = forumService.getThreadPage(category, before, beforeId, size);
         model.addAttribute("message", "Welcome to the Forum!");
-        model.addAttribute("threads", forumService.getAllThreads());
+        model.addAttribute("threads", page.getItems());
+        model.addAttribute("unread", readTracker.unreadIds(auth.getName(), page.getItems()));
+        model.addAttribute("unreadNotifications", notificationService.countUnread(auth.getName()));
+        model.addAttribute("page", page);
+        model.addAttribute("firstPage", before == null);
+        model.addAttribute("category", category);
+        if (category != null) {
+            model.addAttribute("categoryStats", forumService.getCategoryStats().stream()
+                .filter(stats -> stats.getCategoryId().equals(category)).findFirst().orElse(null));
+        }
         if (redirectAttributes.getFlashAttributes().containsKey("successMessage")) {
             model.addAttribute("successMessage", redirectAttributes.getFlashAttributes().get("successMessage"));
         }
@@ -34,6 +76,24 @@ public String home(Model model, Authentication auth, RedirectAttributes redirect
     return "redirect:/login";
 }
 
+    // Category index: counts and last activity come from memory, each row links to the filtered listing.
+    @GetMapping("/categories")
+    public String categories(Model model) {
+        model.addAttribute("categories", forumService.getCategoryStats());
+        return "categories";
+    }
+
+    @GetMapping("/thread/hot")
+    public String hotThreads(@RequestParam(defaultValue = "" + ForumService.DEFAULT_PAGE_SIZE) int size,
+                             Model model, Authentication auth) {
+        List<ThreadSummary> threads = forumService.getHotThreads(size);
+        model.addAttribute("message", "Hot right now");
+        model.addAttribute("threads", threads);
+        model.addAttribute("unread", readTracker.unreadIds(auth.getName(), threads));
+        model.addAttribute("hot", true);
+        return "index";
+    }
+
     @GetMapping("/thread/new")  // Explicit path
     public String newThreadForm(Model model, Authentication auth) {
         model.addAttribute("thread", new ForumThread());
@@ -68,25 +128,107 @@ public String home(Model model, Authentication auth, RedirectAttributes redirect
         thread.setAuthor(username);
         thread.setCreatedAt(LocalDateTime.now());
 
-        System.out.println("Creating thread: " + thread.getTitle());
         ForumThread saved = forumService.createThread(thread, username);
         redirectAttributes.addFlashAttribute("successMessage", "Thread created successfully!");
         return "redirect:/thread/" + saved.getId();
     }
 
     @GetMapping("/thread/{id}")  // Explicit path
-    public String viewThread(@PathVariable Long id, Model model, Authentication auth) {
-        ForumThread thread = forumService.getThreadById(id);
-        model.addAttribute("thread", thread);
-        model.addAttribute("posts", forumService.getPostsByThread(id));
+    public String viewThread(@PathVariable Long id,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+                             @RequestParam(required = false) Long afterId,
+                             @RequestParam(defaultValue = "" + ForumService.DEFAULT_REPLY_PAGE_SIZE) int size,
+                             @RequestParam(defaultValue = "false") boolean all,
+                             Model model, Authentication auth,
+                             HttpServletRequest request, HttpServletResponse response,
+                             WebRequest webRequest) {
+        // Conditional GET: one stamp lookup decides whether the client's copy is still good.
+        // The ETag also covers who is looking (the page embeds the user, their session's CSRF
+        // token and the subscribe/unsubscribe button); pages carrying a one-off flash message
+        // are never answered with 304.
+        ThreadStamp stamp = forumService.getThreadStamp(id);
+        boolean signedIn = auth != null && auth.isAuthenticated();
+        boolean subscribed = signedIn && notificationService.isSubscribed(id, auth.getName());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (RequestContextUtils.getInputFlashMap(request) == null
+                && webRequest.checkNotModified(etag(stamp, auth, subscribed, request), stamp.getLastModifiedMillis())) {
+            return null;
+        }
 
-        if (auth != null && auth.isAuthenticated()) {
+        // Shared, cached view model; the currentUser attribute below is what personalizes the page.
+        ThreadView view = forumService.getThreadView(id, all ? null : after, all ? null : afterId,
+            all ? ForumService.MAX_PAGE_SIZE : size);
+        forumService.recordThreadView(id);
+        if (auth != null && (all || !view.getReplies().hasNext())) {
+            // Read to the end: everything up to the stamp taken above has been seen.
+            readTracker.threadRead(auth.getName(), id, stamp.getLastModifiedAt());
+        }
+        model.addAttribute("thread", view);
+        model.addAttribute("replies", view.getReplies());
+        model.addAttribute("firstPage", all || after == null);
+        model.addAttribute("streaming", all);
+        if (all) {
+            // Whole thread on one page: Thymeleaf writes straight to the response, so flushing
+            // before each further chunk is fetched sends the header and earlier replies right away.
+            // One query per chunk is expected here, not an N+1.
+            request.setAttribute(QueryCountFilter.STREAMED_ATTRIBUTE, Boolean.TRUE);
+            model.addAttribute("posts", forumService.streamReplies(id, view.getReplies(), () -> flush(response)));
+        } else {
+            model.addAttribute("posts", view.getReplies().getItems());
+        }
+
+        if (signedIn) {
             model.addAttribute("currentUser", auth.getName());
+            model.addAttribute("subscribed", subscribed);
         }
 
         return "thread-view";
     }
 
+    private static void flush(HttpServletResponse response) {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String etag(ThreadStamp stamp, Authentication auth, boolean subscribed, HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        int viewer = Objects.hash(auth != null ? auth.getName() : null, session != null ? session.getId() : null,
+            subscribed);
+        return "W/\"" + stamp.getThreadId() + "-" + stamp.getRevision() + "-" + Integer.toHexString(viewer) + "\"";
+    }
+
+    @PostMapping("/thread/{id}/subscribe")
+    public String subscribe(@PathVariable Long id, Authentication auth, RedirectAttributes redirectAttributes) {
+        forumService.getThreadById(id);  // fails for unknown or deleted threads
+        notificationService.subscribe(id, auth.getName());
+        redirectAttributes.addFlashAttribute("successMessage", "You will be notified of new replies.");
+        return "redirect:/thread/" + id;
+    }
+
+    @PostMapping("/thread/{id}/unsubscribe")
+    public String unsubscribe(@PathVariable Long id, Authentication auth, RedirectAttributes redirectAttributes) {
+        notificationService.unsubscribe(id, auth.getName());
+        redirectAttributes.addFlashAttribute("successMessage", "Unsubscribed from this thread.");
+        return "redirect:/thread/" + id;
+    }
+
+    // "Mark all read" on the listing, for one category when it is filtered.
+    @PostMapping("/thread/read")
+    public String markAllRead(@RequestParam(required = false) Long category, Authentication auth) {
+        readTracker.markAllRead(auth.getName(), category);
+        return category != null ? "redirect:/thread/?category=" + category : "redirect:/thread/";
+    }
+
+    // Server-Sent Events: pushes replies posted after the page was loaded.
+    @GetMapping(path = "/thread/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter threadEvents(@PathVariable Long id) {
+        return forumService.subscribeToThread(id);
+    }
+
     @PostMapping("/thread/{id}/reply")  // Explicit path
     public String createPost(@PathVariable Long id,
                              @RequestParam String content,
@@ -100,7 +242,6 @@ public String home(Model model, Authentication auth, RedirectAttributes redirect
         post.setAuthor(username);
         post.setCreatedAt(LocalDateTime.now());
 
-        System.out.println("Creating post on thread " + id);
         forumService.createPost(post, thread, username);
         redirectAttributes.addFlashAttribute("successMessage", "Reply added successfully!");
         return "redirect:/thread/" + id;
@@ -0,0 +1,44 @@
+package com.example.forum_app.controller;
+
+import com.example.forum_app.model.Notification;
+import com.example.forum_app.service.NotificationService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Controller
+@Timed("forum.web")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // Latest inbox entries. Viewing changes nothing; the page posts back the unread entries it
+    // showed, and how recent they were, to mark exactly those read.
+    @GetMapping("/notifications")
+    public String notifications(Model model, Authentication auth) {
+        List<Notification> notifications = notificationService.getLatest(auth.getName());
+        model.addAttribute("notifications", notifications);
+        notifications.stream().filter(n -> !n.isRead()).map(Notification::getUpdatedAt)
+            .max(LocalDateTime::compareTo)
+            .ifPresent(seenUpTo -> model.addAttribute("seenUpTo", seenUpTo));
+        return "notifications";
+    }
+
+    @PostMapping("/notifications/read")
+    public String markRead(@RequestParam(defaultValue = "") List<Long> ids,
+                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime seenUpTo,
+                           Authentication auth) {
+        notificationService.markRead(auth.getName(), ids, seenUpTo);
+        return "redirect:/notifications";
+    }
+}
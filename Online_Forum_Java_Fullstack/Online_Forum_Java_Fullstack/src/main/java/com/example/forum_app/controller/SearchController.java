@@ -0,0 +1,28 @@
+package com.example.forum_app.controller;
+
+import com.example.forum_app.service.SearchService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@Timed("forum.web")
+public class SearchController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping("/search")
+    public String search(@RequestParam(name = "q", defaultValue = "") String query,
+                         @RequestParam(defaultValue = "0") int page,
+                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                         Model model) {
+        model.addAttribute("results", searchService.search(query, page, size));
+        return "search";
+    }
+}
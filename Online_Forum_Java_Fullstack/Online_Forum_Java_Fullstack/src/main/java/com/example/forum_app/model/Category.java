@@ -10,7 +10,8 @@ import java.util.List;
 @Table(name = "categories")  // Optional: Custom table name (default is "category")
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
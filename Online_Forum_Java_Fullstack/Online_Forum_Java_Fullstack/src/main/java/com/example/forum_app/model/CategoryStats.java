@@ -0,0 +1,33 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+
+// One row of the category index: a category with its thread and reply counts and the time of
+// its latest thread or reply (null while it has none). Built from CategoryStatsTracker's
+// in-memory counters, not from a query.
+public class CategoryStats {
+
+    private final Long categoryId;
+    private final String name;
+    private final long threadCount;
+    private final long postCount;
+    private final LocalDateTime lastActivityAt;
+
+    public CategoryStats(Long categoryId, String name, long threadCount, long postCount, LocalDateTime lastActivityAt) {
+        this.categoryId = categoryId;
+        this.name = name;
+        this.threadCount = threadCount;
+        this.postCount = postCount;
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+
+    public String getName() { return name; }
+
+    public long getThreadCount() { return threadCount; }
+
+    public long getPostCount() { return postCount; }
+
+    public LocalDateTime getLastActivityAt() { return lastActivityAt; }
+}
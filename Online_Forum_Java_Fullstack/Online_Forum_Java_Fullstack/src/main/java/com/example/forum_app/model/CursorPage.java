@@ -0,0 +1,42 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset (createdAt, id) listing. The cursor fields point at the
+// last row on the page and are null when there is nothing after it.
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final LocalDateTime nextCreatedAt;
+    private final Long nextId;
+
+    public CursorPage(List<T> items, LocalDateTime nextCreatedAt, Long nextId) {
+        this.items = items;
+        this.nextCreatedAt = nextCreatedAt;
+        this.nextId = nextId;
+    }
+
+    // Builds a page from a query that fetched up to limit + 1 rows: the extra row only
+    // signals that another page exists and is dropped.
+    public static <T> CursorPage<T> of(List<T> rows, int limit,
+                                       Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new CursorPage<>(items, createdAt.apply(last), id.apply(last));
+    }
+
+    public List<T> getItems() { return items; }
+
+    public LocalDateTime getNextCreatedAt() { return nextCreatedAt; }
+
+    public Long getNextId() { return nextId; }
+
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    public boolean hasNext() { return nextId != null; }
+}
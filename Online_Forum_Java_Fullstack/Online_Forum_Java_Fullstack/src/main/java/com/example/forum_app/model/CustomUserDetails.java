@@ -1,32 +1,54 @@
 package com.example.forum_app.model;
 
 
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
 
-public class CustomUserDetails implements UserDetails {
+// The logged-in principal, which ends up in the shared session store. It keeps only the username,
+// role and (until login completes) the password hash - not the User entity with its email - and
+// Spring Security erases the hash after authentication because this is a CredentialsContainer.
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
 
-    private final User user;
+    private final String username;
+    private final String role;
+    private String password;
 
     public CustomUserDetails(User user) {
-        this.user = user;
+        this(user.getUsername(), user.getRole(), user.getPassword());
+    }
+
+    private CustomUserDetails(String username, String role, String password) {
+        this.username = username;
+        this.role = role;
+        this.password = password;
+    }
+
+    // A separate instance for one authentication, so erasing its password leaves the original
+    // (e.g. the one in UserService's principal cache) usable for the next login.
+    public CustomUserDetails copy() {
+        return new CustomUserDetails(username, role, password);
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        String role = user.getRole();
-        if (role == null) role = "USER";
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+        String r = role == null ? "USER" : role;
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + r.toUpperCase()));
     }
 
     @Override
-    public String getPassword() { return user.getPassword(); }
+    public String getPassword() { return password; }
 
     @Override
-    public String getUsername() { return user.getUsername(); }
+    public String getUsername() { return username; }
 
     @Override
     public boolean isAccountNonExpired() { return true; }
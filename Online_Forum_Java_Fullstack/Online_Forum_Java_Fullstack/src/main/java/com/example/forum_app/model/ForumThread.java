@@ -9,11 +9,16 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "forum_threads")
+@Table(name = "forum_threads", indexes = {
+    // Keyset listing (ORDER BY created_at DESC, id DESC), overall and per category
+    @Index(name = "idx_threads_created", columnList = "created_at, id"),
+    @Index(name = "idx_threads_category_created", columnList = "category_id, created_at, id")
+})
 public class ForumThread {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "thread_seq")
+    @SequenceGenerator(name = "thread_seq", sequenceName = "forum_threads_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -36,6 +41,28 @@ public class ForumThread {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Denormalized from the posts table so listings never have to touch it. Both columns are
+    // maintained only through ForumThreadRepository's bulk updates, hence updatable = false:
+    // a stale managed copy must not overwrite a concurrent increment on flush.
+    @Column(nullable = false, updatable = false)
+    private long replyCount;
+
+    @Column(updatable = false)
+    private LocalDateTime lastPostAt;
+
+    // Set when a large thread is handed to ThreadPurger: the thread is hidden at once and its
+    // replies are deleted in the background. Only ever written by a bulk update.
+    @Column(nullable = false, updatable = false)
+    private boolean deletePending;
+
+    // Change stamp for conditional GETs of the thread page: bumped (through the same bulk
+    // updates as the reply counters) whenever the thread or one of its replies changes.
+    @Column(nullable = false, updatable = false)
+    private long revision;
+
+    @Column(updatable = false)
+    private LocalDateTime lastModifiedAt;
+
     @OneToMany(mappedBy = "thread", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Post> posts;
 
@@ -82,6 +109,24 @@ public class ForumThread {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public long getReplyCount() { return replyCount; }
+    public void setReplyCount(long replyCount) { this.replyCount = replyCount; }
+
+    public LocalDateTime getLastPostAt() { return lastPostAt; }
+    public void setLastPostAt(LocalDateTime lastPostAt) { this.lastPostAt = lastPostAt; }
+
+    // Last activity for display and ordering purposes: the newest reply, or the thread itself.
+    public LocalDateTime getLastActivityAt() { return lastPostAt != null ? lastPostAt : createdAt; }
+
+    public long getRevision() { return revision; }
+    public void setRevision(long revision) { this.revision = revision; }
+
+    public LocalDateTime getLastModifiedAt() { return lastModifiedAt; }
+    public void setLastModifiedAt(LocalDateTime lastModifiedAt) { this.lastModifiedAt = lastModifiedAt; }
+
+    public boolean isDeletePending() { return deletePending; }
+    public void setDeletePending(boolean deletePending) { this.deletePending = deletePending; }
+
     public List<Post> getPosts() { return posts; }
     public void setPosts(List<Post> posts) { this.posts = posts; }
 }
\ No newline at end of file
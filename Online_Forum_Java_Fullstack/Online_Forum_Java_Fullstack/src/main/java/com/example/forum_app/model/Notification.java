@@ -0,0 +1,84 @@
+package com.example.forum_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// In-app inbox entry: "n new replies in <thread>". While unread it keeps absorbing further
+// replies to the same thread instead of piling up one row per reply.
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_updated", columnList = "username, updated_at"),
+    @Index(name = "idx_notifications_thread_user", columnList = "thread_id, username")
+})
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notifications_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Column(nullable = false, length = 200)
+    private String threadTitle;
+
+    @Column(nullable = false)
+    private int replyCount;
+
+    @Column(nullable = false)
+    private Long lastPostId;
+
+    @Column(nullable = false, length = 50)
+    private String lastAuthor;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime readAt;
+
+    protected Notification() {}
+
+    public Notification(String username, Long threadId, String threadTitle) {
+        this.username = username;
+        this.threadId = threadId;
+        this.threadTitle = threadTitle;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Folds more replies into this entry.
+    public void addReplies(int count, Long lastPostId, String lastAuthor, LocalDateTime at) {
+        this.replyCount += count;
+        this.lastPostId = lastPostId;
+        this.lastAuthor = lastAuthor;
+        this.updatedAt = at;
+    }
+
+    public Long getId() { return id; }
+
+    public String getUsername() { return username; }
+
+    public Long getThreadId() { return threadId; }
+
+    public String getThreadTitle() { return threadTitle; }
+
+    public int getReplyCount() { return replyCount; }
+
+    public Long getLastPostId() { return lastPostId; }
+
+    public String getLastAuthor() { return lastAuthor; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public LocalDateTime getReadAt() { return readAt; }
+
+    public boolean isRead() { return readAt != null; }
+}
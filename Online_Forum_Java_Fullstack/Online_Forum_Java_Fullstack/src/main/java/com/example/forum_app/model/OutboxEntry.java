@@ -0,0 +1,50 @@
+package com.example.forum_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A reply waiting to be announced to the thread's subscribers. Written in the same transaction
+// as the post, so a notification goes out exactly when the reply exists; NotificationDispatcher
+// drains the table in id order and deletes what it has delivered.
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_outbox_thread", columnList = "thread_id")
+})
+public class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Column(nullable = false, length = 50)
+    private String author;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected OutboxEntry() {}
+
+    public OutboxEntry(Long threadId, Long postId, String author, LocalDateTime createdAt) {
+        this.threadId = threadId;
+        this.postId = postId;
+        this.author = author;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getThreadId() { return threadId; }
+
+    public Long getPostId() { return postId; }
+
+    public String getAuthor() { return author; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -6,11 +6,15 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    // Serves the keyset reply pages: WHERE thread_id = ? ORDER BY created_at, id
+    @Index(name = "idx_posts_thread_created", columnList = "thread_id, created_at, id")
+})
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "posts_seq", allocationSize = 50)  // pooled ids keep JDBC insert batching possible
     private Long id;
 
     @NotBlank(message = "Content is required")
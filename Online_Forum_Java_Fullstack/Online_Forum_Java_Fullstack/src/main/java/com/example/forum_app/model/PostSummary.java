@@ -0,0 +1,32 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+
+// Read-only reply row for the thread page. Carries only the parent thread's id, so
+// rendering a page of replies never loads (or EAGER-joins) the ForumThread again.
+public class PostSummary {
+
+    private final Long id;
+    private final Long threadId;
+    private final String content;
+    private final String author;
+    private final LocalDateTime createdAt;
+
+    public PostSummary(Long id, Long threadId, String content, String author, LocalDateTime createdAt) {
+        this.id = id;
+        this.threadId = threadId;
+        this.content = content;
+        this.author = author;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getThreadId() { return threadId; }
+
+    public String getContent() { return content; }
+
+    public String getAuthor() { return author; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
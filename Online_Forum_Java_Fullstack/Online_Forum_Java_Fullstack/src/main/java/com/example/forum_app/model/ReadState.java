@@ -0,0 +1,37 @@
+package com.example.forum_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row per user holding their whole read state (see service.ReadMarks for the encoding):
+// a baseline, per-category "read up to" watermarks and a bounded set of per-thread marks.
+@Entity
+@Table(name = "read_state")
+public class ReadState {
+
+    public static final int MAX_BYTES = 65536;
+
+    @Id
+    @Column(length = 50)
+    private String username;
+
+    @Column(nullable = false, length = MAX_BYTES)
+    private byte[] marks;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected ReadState() {}
+
+    public ReadState(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() { return username; }
+
+    public byte[] getMarks() { return marks; }
+    public void setMarks(byte[] marks) { this.marks = marks; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
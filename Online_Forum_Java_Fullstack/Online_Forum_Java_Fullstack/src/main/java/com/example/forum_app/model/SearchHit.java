@@ -0,0 +1,47 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+
+// One ranked search result: either a thread (postId == null) or a reply inside a thread.
+public class SearchHit {
+
+    private final Long threadId;
+    private final Long postId;
+    private final String title;
+    private final String snippet;
+    private final String author;
+    private final LocalDateTime createdAt;
+    private final float score;
+    private String threadTitle;
+
+    public SearchHit(Long threadId, Long postId, String title, String snippet, String author,
+                     LocalDateTime createdAt, float score) {
+        this.threadId = threadId;
+        this.postId = postId;
+        this.title = title;
+        this.snippet = snippet;
+        this.author = author;
+        this.createdAt = createdAt;
+        this.score = score;
+    }
+
+    public Long getThreadId() { return threadId; }
+
+    public Long getPostId() { return postId; }
+
+    public boolean isPost() { return postId != null; }
+
+    public String getTitle() { return title; }
+
+    public String getSnippet() { return snippet; }
+
+    public String getAuthor() { return author; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public float getScore() { return score; }
+
+    // Post documents do not carry the thread title (it can be edited); it is filled in at query time.
+    public String getThreadTitle() { return threadTitle != null ? threadTitle : title; }
+    public void setThreadTitle(String threadTitle) { this.threadTitle = threadTitle; }
+}
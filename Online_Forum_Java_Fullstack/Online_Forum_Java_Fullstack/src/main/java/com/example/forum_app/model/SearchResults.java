@@ -0,0 +1,41 @@
+package com.example.forum_app.model;
+
+import com.example.forum_app.service.SearchService;
+
+import java.util.List;
+
+public class SearchResults {
+
+    private final String query;
+    private final List<SearchHit> hits;
+    private final long totalHits;
+    private final int page;
+    private final int size;
+    private final long tookMillis;
+
+    public SearchResults(String query, List<SearchHit> hits, long totalHits, int page, int size, long tookMillis) {
+        this.query = query;
+        this.hits = hits;
+        this.totalHits = totalHits;
+        this.page = page;
+        this.size = size;
+        this.tookMillis = tookMillis;
+    }
+
+    public String getQuery() { return query; }
+
+    public List<SearchHit> getHits() { return hits; }
+
+    public long getTotalHits() { return totalHits; }
+
+    public int getPage() { return page; }
+
+    public int getSize() { return size; }
+
+    public long getTookMillis() { return tookMillis; }
+
+    public boolean hasPrevious() { return page > 0; }
+
+    // Hits past the result window are counted but cannot be paged to.
+    public boolean hasNext() { return (long) (page + 1) * size < Math.min(totalHits, SearchService.MAX_RESULT_WINDOW); }
+}
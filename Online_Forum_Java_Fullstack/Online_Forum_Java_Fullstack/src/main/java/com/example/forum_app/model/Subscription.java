@@ -0,0 +1,43 @@
+package com.example.forum_app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A user following a thread's replies. The unique index doubles as the fan-out index:
+// NotificationDispatcher pages through a thread's subscribers in username order.
+@Entity
+@Table(name = "subscriptions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_subscriptions_thread_user", columnNames = {"thread_id", "username"})
+})
+public class Subscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscription_seq")
+    @SequenceGenerator(name = "subscription_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected Subscription() {}
+
+    public Subscription(Long threadId, String username) {
+        this.threadId = threadId;
+        this.username = username;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+
+    public Long getThreadId() { return threadId; }
+
+    public String getUsername() { return username; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
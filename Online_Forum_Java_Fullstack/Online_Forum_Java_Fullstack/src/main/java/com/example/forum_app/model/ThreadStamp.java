@@ -0,0 +1,27 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// What a conditional GET of /thread/{id} needs to know: the thread's revision and when it
+// last changed. Loaded with one primary-key lookup, without the thread body or any reply.
+public class ThreadStamp {
+
+    private final Long threadId;
+    private final long revision;
+    private final LocalDateTime lastModifiedAt;
+
+    public ThreadStamp(Long threadId, long revision, LocalDateTime lastModifiedAt) {
+        this.threadId = threadId;
+        this.revision = revision;
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    public Long getThreadId() { return threadId; }
+    public long getRevision() { return revision; }
+    public LocalDateTime getLastModifiedAt() { return lastModifiedAt; }
+
+    public long getLastModifiedMillis() {
+        return lastModifiedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+
+// Read-only row for thread listings. Built directly by JPQL constructor expressions in
+// ForumThreadRepository, so it never enters the persistence context and never carries
+// the full content body.
+public class ThreadSummary {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+    private final String author;
+    private final Long categoryId;
+    private final String categoryName;
+    private final LocalDateTime createdAt;
+    private final long replyCount;
+    private final LocalDateTime lastPostAt;
+
+    public ThreadSummary(Long id, String title, String excerpt, String author, Long categoryId,
+                         String categoryName, LocalDateTime createdAt, long replyCount, LocalDateTime lastPostAt) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.author = author;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.createdAt = createdAt;
+        this.replyCount = replyCount;
+        this.lastPostAt = lastPostAt;
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getExcerpt() { return excerpt; }
+
+    public String getAuthor() { return author; }
+
+    public Long getCategoryId() { return categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public long getReplyCount() { return replyCount; }
+
+    public LocalDateTime getLastPostAt() { return lastPostAt; }
+
+    public LocalDateTime getLastActivityAt() { return lastPostAt != null ? lastPostAt : createdAt; }
+
+    // True when the excerpt was cut short and the full body is only on the thread page.
+    public boolean isTruncated() { return excerpt != null && excerpt.length() >= EXCERPT_LENGTH; }
+}
@@ -0,0 +1,58 @@
+package com.example.forum_app.model;
+
+import java.time.LocalDateTime;
+
+// Everything the thread page renders that is the same for every reader: the thread header
+// and one page of replies. Immutable and detached from JPA, so one instance can be cached
+// and shared; per-user bits (edit/delete buttons) are decided in the template.
+public class ThreadView {
+
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final String author;
+    private final Long categoryId;
+    private final String categoryName;
+    private final LocalDateTime createdAt;
+    private final long replyCount;
+    private final CursorPage<PostSummary> replies;
+
+    public ThreadView(ForumThread thread, CursorPage<PostSummary> replies) {
+        this.id = thread.getId();
+        this.title = thread.getTitle();
+        this.content = thread.getContent();
+        this.author = thread.getAuthor();
+        this.categoryId = thread.getCategory().getId();
+        this.categoryName = thread.getCategory().getName();
+        this.createdAt = thread.getCreatedAt();
+        this.replyCount = thread.getReplyCount();
+        this.replies = replies;
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getContent() { return content; }
+
+    public String getAuthor() { return author; }
+
+    public Long getCategoryId() { return categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public long getReplyCount() { return replyCount; }
+
+    public CursorPage<PostSummary> getReplies() { return replies; }
+
+    // Rough heap footprint in characters, used to weigh cache entries.
+    public int estimatedSize() {
+        int size = title.length() + content.length() + 256;
+        for (PostSummary post : replies.getItems()) {
+            size += post.getContent().length() + 128;
+        }
+        return size;
+    }
+}
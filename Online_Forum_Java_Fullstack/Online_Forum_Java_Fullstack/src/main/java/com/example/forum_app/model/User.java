@@ -9,7 +9,8 @@ import jakarta.validation.constraints.Size;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Username is required")
@@ -43,7 +44,9 @@ public class User {
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
 
+    // Lookups compare against the stored value directly, so keep it normalized on every write.
     @PrePersist
+    @PreUpdate
     public void prePersist() {
         if (this.username != null) this.username = this.username.trim().toLowerCase();
         if (this.email != null) this.email = this.email.trim().toLowerCase();
@@ -1,15 +1,122 @@
    package com.example.forum_app.repository;
 
    import com.example.forum_app.model.ForumThread;
+   import com.example.forum_app.model.ThreadStamp;
+   import com.example.forum_app.model.ThreadSummary;
+   import org.springframework.data.domain.Pageable;
    import org.springframework.data.jpa.repository.JpaRepository;
+   import org.springframework.data.jpa.repository.Modifying;
    import org.springframework.data.jpa.repository.Query;
    import org.springframework.stereotype.Repository;
 
+   import java.time.LocalDateTime;
+   import java.util.Collection;
    import java.util.List;
+   import java.util.Optional;
 
    @Repository
    public interface ForumThreadRepository extends JpaRepository<ForumThread, Long> {
        @Query("SELECT t FROM ForumThread t WHERE t.category.id = ?1")
        List<ForumThread> findByCategoryId(Long categoryId);
+
+       // Listing queries project straight into ThreadSummary: no content body, no managed entities.
+       // Threads waiting for a background delete are already gone as far as readers are concerned.
+       String SUMMARY = "SELECT new com.example.forum_app.model.ThreadSummary(t.id, t.title, " +
+                        "SUBSTRING(t.content, 1, " + ThreadSummary.EXCERPT_LENGTH + "), t.author, c.id, c.name, " +
+                        "t.createdAt, t.replyCount, t.lastPostAt) FROM ForumThread t JOIN t.category c " +
+                        "WHERE t.deletePending = false ";
+       String NEWEST_FIRST = " ORDER BY t.createdAt DESC, t.id DESC";
+
+       @Query(SUMMARY + NEWEST_FIRST)
+       List<ThreadSummary> findSummaries();
+
+       @Query(SUMMARY + "AND c.id = ?1" + NEWEST_FIRST)
+       List<ThreadSummary> findSummariesByCategoryId(Long categoryId);
+
+       @Query(SUMMARY + "AND t.id IN ?1")
+       List<ThreadSummary> findSummariesByIds(Collection<Long> ids);
+
+       // Keyset paging, newest first. Pass Pageable.ofSize(n) to bound the page (no OFFSET is used).
+       @Query(SUMMARY + NEWEST_FIRST)
+       List<ThreadSummary> findLatest(Pageable limit);
+
+       @Query(SUMMARY + "AND (t.createdAt < ?1 OR (t.createdAt = ?1 AND t.id < ?2))" + NEWEST_FIRST)
+       List<ThreadSummary> findLatestBefore(LocalDateTime createdAt, Long id, Pageable limit);
+
+       @Query(SUMMARY + "AND c.id = ?1" + NEWEST_FIRST)
+       List<ThreadSummary> findLatestInCategory(Long categoryId, Pageable limit);
+
+       @Query(SUMMARY + "AND c.id = ?1 AND (t.createdAt < ?2 OR (t.createdAt = ?2 AND t.id < ?3))" + NEWEST_FIRST)
+       List<ThreadSummary> findLatestInCategoryBefore(Long categoryId, LocalDateTime createdAt, Long id, Pageable limit);
+
+       // Id-ordered batches for index rebuilds.
+       List<ForumThread> findByIdGreaterThanAndDeletePendingFalseOrderByIdAsc(Long id, Pageable limit);
+
+       @Query("SELECT t.id, t.title FROM ForumThread t WHERE t.id IN ?1")
+       List<Object[]> findTitlesByIds(Collection<Long> ids);
+
+       // Category, thread count, reply count and last activity per category, for CategoryStatsTracker's
+       // periodic reconciliation. Reply counts are summed from the replyCount column, so posts is not scanned.
+       @Query("SELECT t.category.id, COUNT(t), COALESCE(SUM(t.replyCount), 0), MAX(COALESCE(t.lastPostAt, t.createdAt)) " +
+              "FROM ForumThread t WHERE t.deletePending = false GROUP BY t.category.id")
+       List<Object[]> findCategoryTotals();
+
+       // Reply counters are only ever changed with single-row atomic updates so concurrent
+       // replies cannot lose increments. Threads waiting for a background delete match no row,
+       // so a reply racing the delete sees 0 and rolls back instead of outliving its thread.
+       @Modifying
+       @Query("UPDATE ForumThread t SET t.replyCount = t.replyCount + 1, t.revision = t.revision + 1, t.lastModifiedAt = ?2, " +
+              "t.lastPostAt = CASE WHEN t.lastPostAt IS NULL OR t.lastPostAt < ?2 THEN ?2 ELSE t.lastPostAt END " +
+              "WHERE t.id = ?1 AND t.deletePending = false")
+       int recordReply(Long threadId, LocalDateTime postedAt);
+
+       @Modifying
+       @Query("UPDATE ForumThread t SET t.replyCount = t.replyCount + ?2, t.revision = t.revision + 1, t.lastModifiedAt = ?3, " +
+              "t.lastPostAt = CASE WHEN t.lastPostAt IS NULL OR t.lastPostAt < ?3 THEN ?3 ELSE t.lastPostAt END " +
+              "WHERE t.id = ?1 AND t.deletePending = false")
+       int recordReplies(Long threadId, long count, LocalDateTime newestPostedAt);
+
+       // Run after the post row is gone; lastPostAt falls back to the newest remaining reply.
+       // Threads waiting for a background delete have had all their replies counted out
+       // already, so they match no row here either.
+       @Modifying(flushAutomatically = true)
+       @Query("UPDATE ForumThread t SET t.replyCount = t.replyCount - 1, t.revision = t.revision + 1, t.lastModifiedAt = ?2, " +
+              "t.lastPostAt = (SELECT MAX(p.createdAt) FROM Post p WHERE p.thread.id = ?1) " +
+              "WHERE t.id = ?1 AND t.replyCount > 0 AND t.deletePending = false")
+       int recordReplyRemoved(Long threadId, LocalDateTime changedAt);
+
+       // Edits of the thread or one of its replies: only the change stamp moves.
+       @Modifying
+       @Query("UPDATE ForumThread t SET t.revision = t.revision + 1, t.lastModifiedAt = ?2 WHERE t.id = ?1")
+       int touch(Long threadId, LocalDateTime changedAt);
+
+       // Single-row lookup behind conditional GETs of the thread page.
+       @Query("SELECT new com.example.forum_app.model.ThreadStamp(t.id, t.revision, COALESCE(t.lastModifiedAt, t.createdAt)) " +
+              "FROM ForumThread t WHERE t.id = ?1 AND t.deletePending = false")
+       Optional<ThreadStamp> findStamp(Long threadId);
+
+       // Deleting a thread: mark it (large threads, purged in the background) or remove the row once
+       // its posts are gone. Both bypass the persistence context, so no replies are loaded.
+       @Modifying
+       @Query("UPDATE ForumThread t SET t.deletePending = true WHERE t.id = ?1")
+       int markDeletePending(Long threadId);
+
+       boolean existsByIdAndDeletePendingFalse(Long id);
+
+       @Query("SELECT t.category.id FROM ForumThread t WHERE t.id = ?1 AND t.deletePending = false")
+       Optional<Long> findCategoryId(Long threadId);
+
+       @Query("SELECT t.id FROM ForumThread t WHERE t.deletePending = true")
+       List<Long> findDeletePendingIds();
+
+       @Modifying(flushAutomatically = true, clearAutomatically = true)
+       @Query("DELETE FROM ForumThread t WHERE t.id = ?1")
+       int deleteInBulk(Long threadId);
+
+       // One-shot backfill for rows written before the counters existed.
+       @Modifying(flushAutomatically = true, clearAutomatically = true)
+       @Query("UPDATE ForumThread t SET " +
+              "t.replyCount = (SELECT COUNT(p) FROM Post p WHERE p.thread = t), " +
+              "t.lastPostAt = (SELECT MAX(p.createdAt) FROM Post p WHERE p.thread = t)")
+       int rebuildReplyStats();
    }
-   
\ No newline at end of file
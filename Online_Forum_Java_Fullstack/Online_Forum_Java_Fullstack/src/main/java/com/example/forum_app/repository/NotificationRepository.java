@@ -0,0 +1,40 @@
+package com.example.forum_app.repository;
+
+import com.example.forum_app.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    @Query("SELECT n FROM Notification n WHERE n.username = ?1 ORDER BY n.updatedAt DESC")
+    List<Notification> findLatest(String username, Pageable limit);
+
+    long countByUsernameAndReadAtIsNull(String username);
+
+    // Folds new replies into the user's unread entry for the thread, if there still is one. A
+    // single conditional statement, so an entry marked read meanwhile is left alone (0 rows).
+    @Modifying
+    @Query("UPDATE Notification n SET n.replyCount = n.replyCount + ?3, n.lastPostId = ?4, n.lastAuthor = ?5, " +
+           "n.updatedAt = ?6 WHERE n.threadId = ?1 AND n.username = ?2 AND n.readAt IS NULL")
+    int addRepliesIfUnread(Long threadId, String username, int count, Long lastPostId, String lastAuthor,
+                           LocalDateTime at);
+
+    // Marks the given entries read, except any that took new replies after seenUpTo: those
+    // were not on the page the user saw.
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = ?4 " +
+           "WHERE n.username = ?1 AND n.id IN ?2 AND n.updatedAt <= ?3 AND n.readAt IS NULL")
+    int markRead(String username, Collection<Long> ids, LocalDateTime seenUpTo, LocalDateTime readAt);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.threadId = ?1")
+    int deleteByThreadIdInBulk(Long threadId);
+}
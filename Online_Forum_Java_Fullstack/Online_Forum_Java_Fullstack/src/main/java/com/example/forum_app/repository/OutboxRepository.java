@@ -0,0 +1,38 @@
+package com.example.forum_app.repository;
+
+import com.example.forum_app.model.OutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+
+    // Oldest entries first, locked so that another node's dispatcher skips them (SKIP LOCKED)
+    // instead of announcing the same replies twice.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEntry e ORDER BY e.id")
+    List<OutboxEntry> lockOldest(Pageable limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEntry e")
+    LocalDateTime findOldestCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEntry e WHERE e.id IN ?1")
+    int deleteByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEntry e WHERE e.threadId = ?1")
+    int deleteByThreadIdInBulk(Long threadId);
+}
@@ -1,15 +1,48 @@
    package com.example.forum_app.repository;
 
    import com.example.forum_app.model.Post;
+   import com.example.forum_app.model.PostSummary;
+   import org.springframework.data.domain.Pageable;
    import org.springframework.data.jpa.repository.JpaRepository;
+   import org.springframework.data.jpa.repository.Modifying;
    import org.springframework.data.jpa.repository.Query;
    import org.springframework.stereotype.Repository;
 
+   import java.time.LocalDateTime;
+   import java.util.Collection;
    import java.util.List;
 
    @Repository
    public interface PostRepository extends JpaRepository<Post, Long> {
        @Query("SELECT p FROM Post p WHERE p.thread.id = ?1")
        List<Post> findByThreadId(Long threadId);
+
+       // Keyset paging of a thread's replies, oldest first, projected so the parent thread is not loaded.
+       String SUMMARY = "SELECT new com.example.forum_app.model.PostSummary(p.id, p.thread.id, p.content, p.author, p.createdAt) " +
+                        "FROM Post p ";
+       String OLDEST_FIRST = " ORDER BY p.createdAt ASC, p.id ASC";
+
+       @Query(SUMMARY + "WHERE p.thread.id = ?1" + OLDEST_FIRST)
+       List<PostSummary> findFirstReplies(Long threadId, Pageable limit);
+
+       @Query(SUMMARY + "WHERE p.thread.id = ?1 AND (p.createdAt > ?2 OR (p.createdAt = ?2 AND p.id > ?3))" + OLDEST_FIRST)
+       List<PostSummary> findRepliesAfter(Long threadId, LocalDateTime createdAt, Long id, Pageable limit);
+
+       // Id-ordered batches for index rebuilds; the thread is fetched in the same statement.
+       @Query("SELECT p FROM Post p JOIN FETCH p.thread t WHERE p.id > ?1 AND t.deletePending = false ORDER BY p.id")
+       List<Post> findBatchAfter(Long id, Pageable limit);
+
+       // Bulk removal of a thread's replies: in one statement, or in id-ordered chunks so each
+       // transaction (and the locks it holds) stays short.
+       @Modifying(flushAutomatically = true)
+       @Query("DELETE FROM Post p WHERE p.thread.id = ?1")
+       int deleteByThreadIdInBulk(Long threadId);
+
+       @Query("SELECT p.id FROM Post p WHERE p.thread.id = ?1 ORDER BY p.id")
+       List<Long> findIdsByThreadId(Long threadId, Pageable limit);
+
+       @Modifying
+       @Query("DELETE FROM Post p WHERE p.id IN ?1")
+       int deleteByIdIn(Collection<Long> ids);
    }
    
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.forum_app.repository;
+
+import com.example.forum_app.model.ReadState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReadStateRepository extends JpaRepository<ReadState, String> {
+
+    // Rows about to be merged and rewritten; locked so two nodes flushing the same user take turns.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReadState r WHERE r.username IN ?1")
+    List<ReadState> lockAllById(Collection<String> usernames);
+}
@@ -0,0 +1,28 @@
+package com.example.forum_app.repository;
+
+import com.example.forum_app.model.Subscription;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+
+    boolean existsByThreadIdAndUsername(Long threadId, String username);
+
+    // Keyset page of a thread's subscribers (pass "" for the first page); runs on the unique index.
+    @Query("SELECT s.username FROM Subscription s WHERE s.threadId = ?1 AND s.username > ?2 ORDER BY s.username")
+    List<String> findSubscribersAfter(Long threadId, String afterUsername, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM Subscription s WHERE s.threadId = ?1 AND s.username = ?2")
+    int deleteByThreadIdAndUsernameInBulk(Long threadId, String username);
+
+    @Modifying
+    @Query("DELETE FROM Subscription s WHERE s.threadId = ?1")
+    int deleteByThreadIdInBulk(Long threadId);
+}
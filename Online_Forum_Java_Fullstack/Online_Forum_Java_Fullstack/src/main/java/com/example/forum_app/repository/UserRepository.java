@@ -11,12 +11,13 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    // Existing: Case-insensitive username search (for login)
-    @Query("SELECT u FROM User u WHERE LOWER(u.username) = LOWER(?1)")
+    // Case-insensitive username search (for login). Usernames are stored trimmed and
+    // lower-cased (User.prePersist), so only the argument is normalized and the unique index is used.
+    @Query("SELECT u FROM User u WHERE u.username = LOWER(?1)")
     Optional<User> findByUsername(String username);
 
-    // Existing: Case-insensitive email search (for registration)
-    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(?1)")
+    // Case-insensitive email search (for registration); emails are normalized the same way.
+    @Query("SELECT u FROM User u WHERE u.email = LOWER(?1)")
     Optional<User> findByEmail(String email);
 
     // Additional Queries for Flexibility
@@ -0,0 +1,130 @@
+package com.example.forum_app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Structured domain events (thread created, post created, login succeeded/failed, ...).
+// Request threads only drop an event into a bounded lock-free ring; one writer thread drains
+// it into the "forum.audit" logger, whose appender is asynchronous as well (logback-spring.xml).
+// When the ring is full the event is dropped and counted rather than slowing the request down.
+@Component
+public class AuditLog {
+
+    private static final Logger audit = LoggerFactory.getLogger("forum.audit");
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    public enum Type {
+        THREAD_CREATED("thread.created"),
+        THREAD_DELETED("thread.deleted"),
+        POST_CREATED("post.created"),
+        USER_REGISTERED("user.registered"),
+        LOGIN_SUCCEEDED("login.succeeded"),
+        LOGIN_FAILED("login.failed");
+
+        final String key;
+
+        Type(String key) { this.key = key; }
+    }
+
+    private record Event(Type type, String actor, Long threadId, Long postId, String address, String reason, Instant at) {}
+
+    private final MpscRingBuffer<Event> ring;
+    private final Counter dropped;
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public AuditLog(MeterRegistry meterRegistry, @Value("${forum.audit.buffer-size:8192}") int bufferSize) {
+        this.ring = new MpscRingBuffer<>(bufferSize);
+        this.dropped = Counter.builder("forum.audit.dropped")
+            .description("Audit events dropped because the ring buffer was full").register(meterRegistry);
+        Gauge.builder("forum.audit.backlog", ring, MpscRingBuffer::size)
+            .description("Audit events waiting to be written").register(meterRegistry);
+    }
+
+    public void threadCreated(String actor, Long threadId) {
+        publish(Type.THREAD_CREATED, actor, threadId, null, null, null);
+    }
+
+    public void threadDeleted(String actor, Long threadId) {
+        publish(Type.THREAD_DELETED, actor, threadId, null, null, null);
+    }
+
+    public void postCreated(String actor, Long threadId, Long postId) {
+        publish(Type.POST_CREATED, actor, threadId, postId, null, null);
+    }
+
+    public void userRegistered(String actor) {
+        publish(Type.USER_REGISTERED, actor, null, null, null, null);
+    }
+
+    public void loginSucceeded(String actor, String address) {
+        publish(Type.LOGIN_SUCCEEDED, actor, null, null, address, null);
+    }
+
+    public void loginFailed(String actor, String address, String reason) {
+        publish(Type.LOGIN_FAILED, actor, null, null, address, reason);
+    }
+
+    public void publish(Type type, String actor, Long threadId, Long postId, String address, String reason) {
+        if (!ring.offer(new Event(type, actor, threadId, postId, address, reason, Instant.now()))) {
+            dropped.increment();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = Thread.ofPlatform().daemon().name("audit-writer").start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int written = 0;
+        Event event;
+        while ((event = ring.poll()) != null) {
+            try {
+                write(event);
+            } catch (RuntimeException e) {
+                log.warn("Could not write audit event {}", event.type(), e);
+            }
+            written++;
+        }
+        return written;
+    }
+
+    private void write(Event event) {
+        var line = audit.atInfo()
+            .addKeyValue("event", event.type().key)
+            .addKeyValue("at", event.at())
+            .addKeyValue("actor", event.actor());
+        if (event.threadId() != null) line = line.addKeyValue("thread", event.threadId());
+        if (event.postId() != null) line = line.addKeyValue("post", event.postId());
+        if (event.address() != null) line = line.addKeyValue("ip", event.address());
+        if (event.reason() != null) line = line.addKeyValue("reason", event.reason());
+        line.log(event.type().key);
+    }
+}
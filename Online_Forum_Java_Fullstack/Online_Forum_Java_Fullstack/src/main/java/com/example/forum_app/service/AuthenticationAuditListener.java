@@ -0,0 +1,33 @@
+package com.example.forum_app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+// Login outcomes come from Spring Security's authentication events rather than from
+// UserService, which only sees the lookup and not the password check.
+@Component
+public class AuthenticationAuditListener {
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        auditLog.loginSucceeded(event.getAuthentication().getName(), address(event.getAuthentication()));
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        auditLog.loginFailed(event.getAuthentication().getName(), address(event.getAuthentication()),
+            event.getException().getClass().getSimpleName());
+    }
+
+    private static String address(Authentication authentication) {
+        return authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : "-";
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.Category;
+import com.example.forum_app.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Categories are reference data: read on every form and every thread write, changed almost
+// never. Reads are served from the "categories"/"categoryById" caches; every write evicts both.
+// Cached thread pages carry the category name, so a rename invalidates those as well.
+@Service
+public class CategoryService {
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_BY_ID = "categoryById";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ThreadViewCache threadViewCache;
+
+    @Cacheable(cacheNames = CATEGORIES, key = "'all'")
+    public List<Category> getAllCategories() {
+        return categoryRepository.findAll();
+    }
+
+    // Throws for unknown ids; exceptions are not cached, so a category created later is found.
+    @Cacheable(cacheNames = CATEGORY_BY_ID)
+    public Category getCategory(Long id) {
+        return categoryRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Category not found with ID: " + id));
+    }
+
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CATEGORIES, allEntries = true),
+        @CacheEvict(cacheNames = CATEGORY_BY_ID, allEntries = true)
+    })
+    public Category createCategory(String name) {
+        if (categoryRepository.findByName(name).isPresent()) {
+            throw new IllegalArgumentException("Category already exists: " + name);
+        }
+        return categoryRepository.save(new Category(name));
+    }
+
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CATEGORIES, allEntries = true),
+        @CacheEvict(cacheNames = CATEGORY_BY_ID, key = "#id")
+    })
+    public Category renameCategory(Long id, String name) {
+        Category category = categoryRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Category not found with ID: " + id));
+        category.setName(name);
+        Category saved = categoryRepository.save(category);
+        threadViewCache.invalidateAll();
+        return saved;
+    }
+}
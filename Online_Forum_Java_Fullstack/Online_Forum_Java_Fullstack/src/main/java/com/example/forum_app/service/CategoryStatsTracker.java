@@ -0,0 +1,169 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.Category;
+import com.example.forum_app.model.CategoryStats;
+import com.example.forum_app.repository.ForumThreadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-category thread count, reply count and last activity, served from memory.
+//
+// ForumService reports every committed change (thread created, deleted or moved to another
+// category, reply added or removed) and the figures are adjusted in place, so reading them
+// never touches forum_threads or posts. A scheduled reconciliation replaces them with one
+// grouped query over forum_threads (reply counts come from the replyCount column, not from
+// counting posts). That also picks up what the deltas cannot see: writes made by other nodes,
+// background purges, and the exact last activity after deletes. Deltas reported while the
+// query runs are collected on the side and added on top of its result, since the query may
+// not have seen them; only a change committed just before the query but reported just after
+// can end up counted twice, until the next round.
+@Component
+public class CategoryStatsTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryStatsTracker.class);
+
+    private record Counts(long threads, long posts, LocalDateTime lastActivityAt) {
+        static final Counts ZERO = new Counts(0, 0, null);
+
+        Counts plus(Counts delta) {
+            return new Counts(Math.max(0, threads + delta.threads), Math.max(0, posts + delta.posts),
+                later(lastActivityAt, delta.lastActivityAt));
+        }
+
+        // Two deltas combined; unlike plus, negative figures are kept.
+        Counts sum(Counts other) {
+            return new Counts(threads + other.threads, posts + other.posts, later(lastActivityAt, other.lastActivityAt));
+        }
+
+        private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+            return b != null && (a == null || b.isAfter(a)) ? b : a;
+        }
+    }
+
+    @Autowired
+    private ForumThreadRepository threadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, Counts> counts = new ConcurrentHashMap<>();
+    // Deltas applied since the running reconciliation started its query; null in between.
+    private volatile ConcurrentHashMap<Long, Counts> sinceQuery;
+    private final Counter corrections;
+    private boolean filled;  // only touched by the reconciliation task
+
+    public CategoryStatsTracker(MeterRegistry meterRegistry) {
+        this.corrections = Counter.builder("forum.category.stats.corrections")
+            .description("Categories whose in-memory figures differed from the database at reconciliation")
+            .register(meterRegistry);
+    }
+
+    public void threadCreated(Long categoryId, LocalDateTime at) {
+        apply(categoryId, new Counts(1, 0, at));
+    }
+
+    public void threadDeleted(Long categoryId, long replies) {
+        apply(categoryId, new Counts(-1, -replies, null));
+    }
+
+    public void threadMoved(Long fromCategoryId, Long toCategoryId, long replies, LocalDateTime lastActivityAt) {
+        apply(fromCategoryId, new Counts(-1, -replies, null));
+        apply(toCategoryId, new Counts(1, replies, lastActivityAt));
+    }
+
+    public void postsAdded(Long categoryId, long count, LocalDateTime newest) {
+        apply(categoryId, new Counts(0, count, newest));
+    }
+
+    public void postRemoved(Long categoryId) {
+        apply(categoryId, new Counts(0, -1, null));
+    }
+
+    // The given categories in order, with zeros for any that have no threads yet.
+    public List<CategoryStats> getStats(List<Category> categories) {
+        List<CategoryStats> stats = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            Counts c = counts.getOrDefault(category.getId(), Counts.ZERO);
+            stats.add(new CategoryStats(category.getId(), category.getName(), c.threads(), c.posts(), c.lastActivityAt()));
+        }
+        return stats;
+    }
+
+    // Also runs once right after startup, which is what fills the figures in the first place.
+    @Scheduled(fixedDelayString = "${forum.category-stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Map<Long, Counts> fresh = new HashMap<>();
+        ConcurrentHashMap<Long, Counts> deltas = new ConcurrentHashMap<>();
+        sinceQuery = deltas;
+        int corrected = 0;
+        try {
+            // On the primary: the deltas collected from here on only make up for what the query
+            // missed if it saw every commit made before it started, which a replica may not have.
+            readOnly.executeWithoutResult(status -> PrimaryReads.run(() -> {
+                for (Object[] row : threadRepository.findCategoryTotals()) {
+                    fresh.put((Long) row[0], new Counts((Long) row[1], (Long) row[2], (LocalDateTime) row[3]));
+                }
+            }));
+            for (Long categoryId : counts.keySet()) {
+                fresh.putIfAbsent(categoryId, Counts.ZERO);
+            }
+            for (Map.Entry<Long, Counts> entry : fresh.entrySet()) {
+                // Same key lock as apply(), so no delta for this category slips in between.
+                Counts[] previous = new Counts[1];
+                Counts current = counts.compute(entry.getKey(), (id, held) -> {
+                    previous[0] = held;
+                    Counts delta = deltas.remove(id);
+                    Counts actual = delta != null ? entry.getValue().plus(delta) : entry.getValue();
+                    return actual.equals(Counts.ZERO) ? null : actual;
+                });
+                if (differs(previous[0], current)) {
+                    corrected++;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile category stats, keeping the current figures", e);
+            return;
+        } finally {
+            sinceQuery = null;
+        }
+        if (filled) {
+            corrections.increment(corrected);
+        }
+        filled = true;
+        log.debug("Reconciled stats of {} categories, {} corrected", fresh.size(), corrected);
+    }
+
+    private void apply(Long categoryId, Counts delta) {
+        if (categoryId != null) {
+            counts.compute(categoryId, (id, held) -> {
+                ConcurrentHashMap<Long, Counts> deltas = sinceQuery;
+                if (deltas != null) {
+                    deltas.merge(id, delta, Counts::sum);
+                }
+                return held != null ? held.plus(delta) : Counts.ZERO.plus(delta);
+            });
+        }
+    }
+
+    private static boolean differs(Counts held, Counts actual) {
+        Counts h = held != null ? held : Counts.ZERO;
+        Counts a = actual != null ? actual : Counts.ZERO;
+        return h.threads() != a.threads() || h.posts() != a.posts();
+    }
+}
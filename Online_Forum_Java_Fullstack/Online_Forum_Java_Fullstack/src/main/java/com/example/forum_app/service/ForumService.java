@@ -1,21 +1,53 @@
 package com.example.forum_app.service;
 
 import com.example.forum_app.model.Category;
+import com.example.forum_app.model.CategoryStats;
+import com.example.forum_app.model.CursorPage;
 import com.example.forum_app.model.ForumThread;
 import com.example.forum_app.model.Post;
+import com.example.forum_app.model.PostSummary;
+import com.example.forum_app.model.ThreadStamp;
+import com.example.forum_app.model.ThreadSummary;
+import com.example.forum_app.model.ThreadView;
 import com.example.forum_app.repository.CategoryRepository;
 import com.example.forum_app.repository.ForumThreadRepository;
 import com.example.forum_app.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed("forum.service")
 public class ForumService {
 
+    private static final Logger log = LoggerFactory.getLogger(ForumService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_REPLY_PAGE_SIZE = 50;
+    public static final int INGEST_BATCH_SIZE = 50;  // matches hibernate.jdbc.batch_size
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private ForumThreadRepository threadRepository;
 
@@ -25,39 +57,144 @@ public class ForumService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ThreadViewCache threadViewCache;
+
+    @Autowired
+    private HotThreadTracker hotThreadTracker;
+
+    @Autowired
+    private ThreadEventHub threadEventHub;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ThreadPurger threadPurger;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private CategoryStatsTracker categoryStats;
+
+    @Value("${forum.delete.async-threshold:5000}")
+    private long asyncDeleteThreshold;
+
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryService.getAllCategories();
+    }
+
+    // Every category with its thread/reply counts and last activity, from memory (no COUNT queries).
+    public List<CategoryStats> getCategoryStats() {
+        return categoryStats.getStats(categoryService.getAllCategories());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ThreadSummary> getAllThreads() {
+        return threadRepository.findSummaries();
     }
 
-    public List<ForumThread> getAllThreads() {
-        return threadRepository.findAll();
+    // Newest threads first. Pass the cursor of the previous page (or nulls for the first page);
+    // cost is independent of how deep the reader pages because no OFFSET is involved.
+    public CursorPage<ThreadSummary> getThreadPage(LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        return getThreadPage(null, beforeCreatedAt, beforeId, size);
     }
 
-    public List<ForumThread> getThreadsByCategory(Long categoryId) {
-        return threadRepository.findByCategoryId(categoryId);
+    // Same as above, restricted to one category when categoryId is not null.
+    @Transactional(readOnly = true)
+    public CursorPage<ThreadSummary> getThreadPage(Long categoryId, LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable fetch = Pageable.ofSize(limit + 1);  // one extra row tells us whether a next page exists
+        boolean first = beforeCreatedAt == null || beforeId == null;
+        List<ThreadSummary> rows;
+        if (categoryId == null) {
+            rows = first ? threadRepository.findLatest(fetch)
+                         : threadRepository.findLatestBefore(beforeCreatedAt, beforeId, fetch);
+        } else {
+            rows = first ? threadRepository.findLatestInCategory(categoryId, fetch)
+                         : threadRepository.findLatestInCategoryBefore(categoryId, beforeCreatedAt, beforeId, fetch);
+        }
+        return CursorPage.of(rows, limit, ThreadSummary::getCreatedAt, ThreadSummary::getId);
     }
 
+    // Threads ranked by HotThreadTracker's decayed reply/view score, hottest first.
+    @Transactional(readOnly = true)
+    public List<ThreadSummary> getHotThreads(int size) {
+        List<Long> ids = hotThreadTracker.getHotThreadIds(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ThreadSummary> byId = new HashMap<>();
+        for (ThreadSummary summary : threadRepository.findSummariesByIds(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        List<ThreadSummary> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ThreadSummary summary = byId.get(id);
+            if (summary != null) ranked.add(summary);  // deleted since the last snapshot
+        }
+        return ranked;
+    }
+
+    public void recordThreadView(Long threadId) {
+        hotThreadTracker.recordView(threadId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ThreadSummary> getThreadsByCategory(Long categoryId) {
+        return threadRepository.findSummariesByCategoryId(categoryId);
+    }
+
+    @Transactional(readOnly = true)
     public ForumThread getThreadById(Long id) {
         return threadRepository.findById(id)
+            .filter(thread -> !thread.isDeletePending())
             .orElseThrow(() -> new RuntimeException("Thread not found with ID: " + id));
     }
 
     @Transactional
     public ForumThread createThread(ForumThread thread, String username) {
-        System.out.println("Saving thread: " + thread.getTitle() + " by " + username);
         thread.setAuthor(username);
         if (thread.getCategory() != null && thread.getCategory().getId() != null) {
-            Category category = categoryRepository.findById(thread.getCategory().getId())
-                .orElseThrow(() -> new RuntimeException("Category not found with ID: " + thread.getCategory().getId()));
-            thread.setCategory(category);
+            thread.setCategory(resolveCategory(thread.getCategory().getId()));
         } else {
             throw new RuntimeException("Category is required");
         }
+        thread.setLastModifiedAt(thread.getCreatedAt());
         ForumThread saved = threadRepository.save(thread);
-        System.out.println("Thread saved with ID: " + saved.getId());
+        notificationService.subscribe(saved.getId(), username);  // authors follow their own threads
+        searchService.indexThread(saved);
+        Long categoryId = saved.getCategory().getId();
+        AfterCommit.run(() -> {
+            categoryStats.threadCreated(categoryId, saved.getCreatedAt());
+            meterRegistry.counter("forum.new.threads").increment();
+            auditLog.threadCreated(username, saved.getId());
+        });
         return saved;
     }
 
+    // Revision and last-modified time of a thread, for answering conditional GETs with 304.
+    // Read on the primary: a lagging replica's older revision would confirm a stale copy.
+    @Transactional(readOnly = true)
+    public ThreadStamp getThreadStamp(Long id) {
+        return PrimaryReads.call(() -> threadRepository.findStamp(id)
+            .orElseThrow(() -> new RuntimeException("Thread not found with ID: " + id)));
+    }
+
     @Transactional
     public ForumThread updateThread(Long id, ForumThread updatedThread, String currentUsername) {
         ForumThread existingThread = getThreadById(id);
@@ -66,37 +203,179 @@ public class ForumService {
         }
         existingThread.setTitle(updatedThread.getTitle());
         existingThread.setContent(updatedThread.getContent());
-        if (updatedThread.getCategory() != null && updatedThread.getCategory().getId() != null) {
-            Category category = categoryRepository.findById(updatedThread.getCategory().getId())
-                .orElseThrow(() -> new RuntimeException("Category not found"));
-            existingThread.setCategory(category);
+        Long fromCategoryId = existingThread.getCategory().getId();
+        Long toCategoryId = updatedThread.getCategory() != null ? updatedThread.getCategory().getId() : null;
+        if (toCategoryId != null) {
+            existingThread.setCategory(resolveCategory(toCategoryId));
         }
-        return threadRepository.save(existingThread);
+        ForumThread saved = threadRepository.save(existingThread);
+        threadRepository.touch(id, LocalDateTime.now());
+        searchService.indexThread(saved);
+        threadViewCache.invalidate(id);
+        if (toCategoryId != null && !toCategoryId.equals(fromCategoryId)) {
+            long replies = saved.getReplyCount();
+            LocalDateTime lastActivity = saved.getLastPostAt() != null ? saved.getLastPostAt() : saved.getCreatedAt();
+            AfterCommit.run(() -> categoryStats.threadMoved(fromCategoryId, toCategoryId, replies, lastActivity));
+        }
+        return saved;
     }
 
+    // Existence is checked against the category cache; the association itself is a lazy
+    // reference, so writing a thread costs no category SELECT.
+    private Category resolveCategory(Long categoryId) {
+        categoryService.getCategory(categoryId);
+        return categoryRepository.getReferenceById(categoryId);
+    }
+
+    // Replies are removed with bulk DELETEs rather than through the posts cascade, which would
+    // load every reply and delete them one by one. Threads with at least
+    // forum.delete.async-threshold replies are only marked here (hidden from every read at once)
+    // and ThreadPurger deletes them in chunks after commit, so the request returns immediately.
     @Transactional
     public void deleteThread(Long id, String currentUsername) {
         ForumThread thread = getThreadById(id);
         if (!thread.getAuthor().equals(currentUsername)) {
             throw new RuntimeException("You can only delete your own threads");
         }
-        threadRepository.delete(thread);
+        if (thread.getReplyCount() >= asyncDeleteThreshold) {
+            threadRepository.markDeletePending(id);
+            AfterCommit.run(() -> threadPurger.purge(id));
+        } else {
+            postRepository.deleteByThreadIdInBulk(id);
+            threadRepository.deleteInBulk(id);
+        }
+        notificationService.forgetThread(id);
+        searchService.removeThread(id);
+        threadViewCache.invalidate(id);
+        Long categoryId = thread.getCategory().getId();
+        long replies = thread.getReplyCount();
+        AfterCommit.run(() -> {
+            categoryStats.threadDeleted(categoryId, replies);
+            hotThreadTracker.forget(id);
+            auditLog.threadDeleted(currentUsername, id);
+        });
     }
 
     @Transactional
     public Post createPost(Post post, ForumThread thread, String username) {
-        System.out.println("Saving post by " + username + " on thread " + thread.getId());
         post.setThread(thread);
         post.setAuthor(username);
+        // Bump the counters first: that locks the thread row, and fails once the thread is marked for deletion.
+        if (threadRepository.recordReply(thread.getId(), post.getCreatedAt()) == 0) {
+            throw new RuntimeException("Thread not found with ID: " + thread.getId());
+        }
         Post saved = postRepository.save(post);
-        System.out.println("Post saved with ID: " + saved.getId());
+        notificationService.enqueueReply(thread.getId(), saved);  // fan-out happens in NotificationDispatcher
+        searchService.indexPost(saved);
+        threadViewCache.invalidate(thread.getId());
+        Long categoryId = thread.getCategory().getId();
+        AfterCommit.run(() -> {
+            categoryStats.postsAdded(categoryId, 1, saved.getCreatedAt());
+            hotThreadTracker.recordReply(thread.getId());
+            meterRegistry.counter("forum.new.posts").increment();
+            auditLog.postCreated(username, thread.getId(), saved.getId());
+        });
+        threadEventHub.publish(new PostSummary(saved.getId(), thread.getId(), saved.getContent(),
+            saved.getAuthor(), saved.getCreatedAt()));
         return saved;
     }
 
+    // Bulk ingest for imports and bots: many replies to one thread in one transaction.
+    // Inserts go out as JDBC batches (pooled sequence ids, hibernate.jdbc.batch_size) and the
+    // persistence context is flushed and cleared per batch so memory stays flat; the thread's
+    // counters are bumped once for the whole call. Posts without an author get the caller's name.
+    @Transactional
+    public List<Post> createPosts(Long threadId, List<Post> posts, String username) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        Long categoryId = threadRepository.findCategoryId(threadId)
+            .orElseThrow(() -> new RuntimeException("Thread not found with ID: " + threadId));
+        ForumThread thread = threadRepository.getReferenceById(threadId);
+        LocalDateTime newest = null;
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            post.setThread(thread);
+            if (post.getAuthor() == null) {
+                post.setAuthor(username);
+            }
+            entityManager.persist(post);
+            notificationService.enqueueReply(threadId, post);
+            if (newest == null || post.getCreatedAt().isAfter(newest)) {
+                newest = post.getCreatedAt();
+            }
+            if ((i + 1) % INGEST_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        if (threadRepository.recordReplies(threadId, posts.size(), newest) == 0) {
+            throw new RuntimeException("Thread not found with ID: " + threadId);  // deleted meanwhile; rolls back the batch
+        }
+
+        for (Post post : posts) {
+            searchService.indexPost(post);
+            threadEventHub.publish(new PostSummary(post.getId(), threadId, post.getContent(),
+                post.getAuthor(), post.getCreatedAt()));
+        }
+        threadViewCache.invalidate(threadId);
+        int count = posts.size();
+        LocalDateTime newestPost = newest;
+        AfterCommit.run(() -> {
+            categoryStats.postsAdded(categoryId, count, newestPost);
+            hotThreadTracker.recordReplies(threadId, count);
+            meterRegistry.counter("forum.new.posts").increment(count);
+            for (Post post : posts) {
+                auditLog.postCreated(post.getAuthor(), threadId, post.getId());
+            }
+        });
+        return posts;
+    }
+
+    // Live stream of replies posted to the thread from now on.
+    public SseEmitter subscribeToThread(Long threadId) {
+        return threadEventHub.subscribe(threadId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Post> getPostsByThread(Long threadId) {
         return postRepository.findByThreadId(threadId);
     }
 
+    // Replies oldest first, one bounded keyset page at a time (nulls for the first page).
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummary> getPostPage(Long threadId, LocalDateTime afterCreatedAt, Long afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable fetch = Pageable.ofSize(limit + 1);
+        List<PostSummary> rows = (afterCreatedAt != null && afterId != null)
+            ? postRepository.findRepliesAfter(threadId, afterCreatedAt, afterId, fetch)
+            : postRepository.findFirstReplies(threadId, fetch);
+        return CursorPage.of(rows, limit, PostSummary::getCreatedAt, PostSummary::getId);
+    }
+
+    // The thread page as every reader sees it, served from ThreadViewCache when possible.
+    // Cache misses load from the primary: a page read from a lagging replica would be filed
+    // under the stamp of a write it does not contain and served to everyone, the writer included.
+    @Transactional(readOnly = true)
+    public ThreadView getThreadView(Long threadId, LocalDateTime afterCreatedAt, Long afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return threadViewCache.get(threadId, afterCreatedAt, afterId, limit, () -> PrimaryReads.call(
+            () -> new ThreadView(getThreadById(threadId), getPostPage(threadId, afterCreatedAt, afterId, limit))));
+    }
+
+    // Every reply after the given first page, fetched MAX_PAGE_SIZE at a time while iterating.
+    // The chunks are read while the view renders, each in its own read-only transaction.
+    public ReplyStream streamReplies(Long threadId, CursorPage<PostSummary> firstPage, Runnable beforeEachChunk) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return new ReplyStream(firstPage,
+            (createdAt, id) -> readOnly.execute(status -> getPostPage(threadId, createdAt, id, MAX_PAGE_SIZE)),
+            beforeEachChunk);
+    }
+
+    @Transactional(readOnly = true)
     public Post getPostById(Long id) {
         return postRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Post not found with ID: " + id));
@@ -109,7 +388,11 @@ public class ForumService {
             throw new RuntimeException("You can only edit your own posts");
         }
         existingPost.setContent(updatedPost.getContent());
-        return postRepository.save(existingPost);
+        Post saved = postRepository.save(existingPost);
+        threadRepository.touch(saved.getThread().getId(), LocalDateTime.now());
+        searchService.indexPost(saved);
+        threadViewCache.invalidate(saved.getThread().getId());
+        return saved;
     }
 
     @Transactional
@@ -118,7 +401,20 @@ public class ForumService {
         if (!post.getAuthor().equals(currentUsername)) {
             throw new RuntimeException("You can only delete your own posts");
         }
+        Long categoryId = post.getThread().getCategory().getId();
         postRepository.delete(post);
+        int removed = threadRepository.recordReplyRemoved(post.getThread().getId(), LocalDateTime.now());
+        searchService.removePost(id);
+        threadViewCache.invalidate(post.getThread().getId());
+        if (removed > 0) {
+            AfterCommit.run(() -> categoryStats.postRemoved(categoryId));
+        }
+    }
+
+    // Recomputes replyCount/lastPostAt for every thread from the posts table.
+    @Transactional
+    public int rebuildReplyStats() {
+        return threadRepository.rebuildReplyStats();
     }
 
     @PostConstruct
@@ -130,7 +426,7 @@ public class ForumService {
             Category tech = new Category("Technology");
             categoryRepository.save(tech);
 
-            System.out.println("Seeded initial categories: General, Technology");
+            log.info("Seeded initial categories: General, Technology");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.example.forum_app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory "hot" ranking: each thread's score is an exponentially decayed sum of its
+// views and replies (a reply weighs more than a view).
+//
+// Request threads only bump LongAdders, which never block and do not contend on a shared
+// cell. A single scheduled task drains the adders, applies the decay, drops threads that
+// have gone cold and publishes an immutable top-N snapshot that readers take without
+// locking. Scores are not persisted; after a restart the ranking warms up again from traffic.
+@Component
+public class HotThreadTracker {
+
+    private static final double COLD_SCORE = 0.05;
+
+    private static final class Heat {
+        final LongAdder views = new LongAdder();
+        final LongAdder replies = new LongAdder();
+        double score;  // only read and written by the decay task
+    }
+
+    private final ConcurrentHashMap<Long, Heat> heat = new ConcurrentHashMap<>();
+    private volatile List<Long> snapshot = List.of();
+    private long lastDecayNanos = System.nanoTime();
+
+    private final double halfLifeNanos;
+    private final double viewWeight;
+    private final double replyWeight;
+    private final int topSize;
+
+    public HotThreadTracker(@Value("${forum.hot.half-life:6h}") Duration halfLife,
+                            @Value("${forum.hot.view-weight:1}") double viewWeight,
+                            @Value("${forum.hot.reply-weight:5}") double replyWeight,
+                            @Value("${forum.hot.top-size:100}") int topSize) {
+        this.halfLifeNanos = halfLife.toNanos();
+        this.viewWeight = viewWeight;
+        this.replyWeight = replyWeight;
+        this.topSize = topSize;
+    }
+
+    public void recordView(Long threadId) {
+        heatOf(threadId).views.increment();
+    }
+
+    public void recordReply(Long threadId) {
+        heatOf(threadId).replies.increment();
+    }
+
+    public void recordReplies(Long threadId, long count) {
+        heatOf(threadId).replies.add(count);
+    }
+
+    public void forget(Long threadId) {
+        heat.remove(threadId);
+    }
+
+    // Hottest first; at most topSize ids, as of the last decay tick.
+    public List<Long> getHotThreadIds(int limit) {
+        List<Long> current = snapshot;
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${forum.hot.decay-interval-ms:10000}")
+    public void decay() {
+        long now = System.nanoTime();
+        double factor = Math.pow(0.5, (now - lastDecayNanos) / halfLifeNanos);
+        lastDecayNanos = now;
+
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(topSize + 1, Map.Entry.comparingByValue());
+        Iterator<Map.Entry<Long, Heat>> it = heat.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Heat> entry = it.next();
+            Heat h = entry.getValue();
+            h.score = h.score * factor
+                + h.views.sumThenReset() * viewWeight
+                + h.replies.sumThenReset() * replyWeight;
+            if (h.score < COLD_SCORE) {
+                // A hit landing between the drain above and this removal is dropped; for a
+                // thread this cold that is noise.
+                it.remove();
+                continue;
+            }
+            top.offer(Map.entry(entry.getKey(), h.score));
+            if (top.size() > topSize) {
+                top.poll();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll().getKey());
+        }
+        Collections.reverse(ids);
+        snapshot = Collections.unmodifiableList(ids);
+    }
+
+    private Heat heatOf(Long threadId) {
+        Heat h = heat.get(threadId);
+        return h != null ? h : heat.computeIfAbsent(threadId, id -> new Heat());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.Notification;
+import com.example.forum_app.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// The in-app inbox (/notifications). A delivery for a thread the user already has an unread
+// entry for is folded into that entry, so a busy thread stays one line until it is read.
+// The fold is a conditional UPDATE rather than load-and-modify, so an entry the user marks read
+// while this runs is never turned back to unread; when it matches nothing a new entry is
+// inserted (batched).
+@Component
+public class InboxNotificationSink implements NotificationSink {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void deliver(List<Delivery> deliveries) {
+        for (Delivery delivery : deliveries) {
+            int folded = notificationRepository.addRepliesIfUnread(delivery.threadId(), delivery.username(),
+                delivery.replies(), delivery.lastPostId(), delivery.lastAuthor(), delivery.lastPostedAt());
+            if (folded == 0) {
+                Notification notification = new Notification(delivery.username(), delivery.threadId(), delivery.threadTitle());
+                notification.addReplies(delivery.replies(), delivery.lastPostId(), delivery.lastAuthor(), delivery.lastPostedAt());
+                entityManager.persist(notification);
+            }
+        }
+    }
+}
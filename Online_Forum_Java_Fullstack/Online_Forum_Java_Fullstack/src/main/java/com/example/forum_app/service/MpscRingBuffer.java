@@ -0,0 +1,68 @@
+package com.example.forum_app.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded multi-producer / single-consumer queue on a power-of-two ring (Vyukov's scheme).
+// Each slot carries a sequence number: producers claim a position with one CAS on the tail and
+// publish by advancing the slot's sequence; the single consumer reads in order and hands the
+// slot back for the next lap. offer() never blocks or allocates and fails when the ring is full.
+final class MpscRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;  // consumer thread only
+
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, item);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;  // the consumer has not freed this slot yet: full
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T item = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.lazySet(index, head + mask + 1);
+        head++;
+        return item;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.OutboxEntry;
+import com.example.forum_app.model.ThreadSummary;
+import com.example.forum_app.repository.ForumThreadRepository;
+import com.example.forum_app.repository.OutboxRepository;
+import com.example.forum_app.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Drains the notification outbox. Each round locks the oldest batch of entries, coalesces them
+// per thread (five replies become one "5 new replies" per subscriber, not counting the
+// subscriber's own), walks each thread's subscribers a page at a time and hands every page to
+// the NotificationSinks, then deletes the batch - all in one transaction, so a failure leaves
+// the batch in the outbox for the next round. Posting a reply never waits for any of this.
+// Rounds run on the dispatcher's own thread rather than the shared @Scheduled one, so a large
+// fan-out cannot hold up the other scheduled jobs, and a round drains at most
+// forum.notify.max-batches-per-round batches before giving the database a break.
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    // Replies to one thread within a batch.
+    private static final class Group {
+        int total;
+        final Map<String, Integer> byAuthor = new HashMap<>();
+        OutboxEntry latest;
+
+        void add(OutboxEntry entry) {
+            total++;
+            byAuthor.merge(entry.getAuthor(), 1, Integer::sum);
+            if (latest == null || entry.getId() > latest.getId()) {
+                latest = entry;
+            }
+        }
+    }
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ForumThreadRepository threadRepository;
+
+    @Autowired
+    private List<NotificationSink> sinks;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ScheduledExecutorService rounds = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notify-dispatch").daemon().factory());
+    private final long intervalMillis;
+    private final int batchSize;
+    private final int maxBatchesPerRound;
+    private final int fanoutPageSize;
+    private final Counter delivered;
+    private volatile long backlog;
+    private volatile long lagMillis;
+
+    public NotificationDispatcher(MeterRegistry meterRegistry,
+                                  @Value("${forum.notify.dispatch-interval-ms:1000}") long intervalMillis,
+                                  @Value("${forum.notify.batch-size:500}") int batchSize,
+                                  @Value("${forum.notify.max-batches-per-round:10}") int maxBatchesPerRound,
+                                  @Value("${forum.notify.fanout-page-size:1000}") int fanoutPageSize) {
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRound = Math.max(1, maxBatchesPerRound);
+        this.fanoutPageSize = fanoutPageSize;
+        this.delivered = Counter.builder("forum.notify.delivered")
+            .description("Notifications handed to the sinks, after coalescing").register(meterRegistry);
+        Gauge.builder("forum.notify.outbox.backlog", this, d -> d.backlog)
+            .description("Replies waiting in the outbox").register(meterRegistry);
+        TimeGauge.builder("forum.notify.outbox.lag", this, TimeUnit.MILLISECONDS, d -> d.lagMillis)
+            .description("Age of the oldest reply waiting in the outbox").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rounds.scheduleWithFixedDelay(this::dispatch, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rounds.shutdown();
+    }
+
+    public void dispatch() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            int drained;
+            int batches = 0;
+            do {
+                drained = tx.execute(status -> dispatchBatch());
+            } while (drained == batchSize && ++batches < maxBatchesPerRound);
+        } catch (RuntimeException e) {
+            log.warn("Notification dispatch failed, retrying next round", e);
+        }
+        tx.setReadOnly(true);
+        try {
+            tx.executeWithoutResult(status -> {
+                backlog = outboxRepository.count();
+                LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+                lagMillis = oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+            });
+        } catch (RuntimeException e) {
+            // an exception escaping here would cancel every later round
+            log.warn("Could not measure the notification outbox", e);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEntry> entries = outboxRepository.lockOldest(Pageable.ofSize(batchSize));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Group> groups = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (OutboxEntry entry : entries) {
+            groups.computeIfAbsent(entry.getThreadId(), id -> new Group()).add(entry);
+            ids.add(entry.getId());
+        }
+        Map<Long, String> titles = new HashMap<>();
+        for (ThreadSummary thread : threadRepository.findSummariesByIds(groups.keySet())) {
+            titles.put(thread.getId(), thread.getTitle());
+        }
+        groups.forEach((threadId, group) -> {
+            String title = titles.get(threadId);
+            if (title != null) {  // otherwise the thread has been deleted meanwhile
+                fanOut(threadId, title, group);
+            }
+        });
+        outboxRepository.deleteByIdIn(ids);
+        return entries.size();
+    }
+
+    private void fanOut(Long threadId, String title, Group group) {
+        OutboxEntry latest = group.latest;
+        String after = "";
+        List<String> subscribers;
+        do {
+            subscribers = subscriptionRepository.findSubscribersAfter(threadId, after, Pageable.ofSize(fanoutPageSize));
+            List<NotificationSink.Delivery> deliveries = new ArrayList<>(subscribers.size());
+            for (String username : subscribers) {
+                int replies = group.total - group.byAuthor.getOrDefault(username, 0);
+                if (replies > 0) {
+                    deliveries.add(new NotificationSink.Delivery(username, threadId, title, replies,
+                        latest.getPostId(), latest.getAuthor(), latest.getCreatedAt()));
+                }
+            }
+            if (!deliveries.isEmpty()) {
+                for (NotificationSink sink : sinks) {
+                    sink.deliver(deliveries);
+                }
+                delivered.increment(deliveries.size());
+                entityManager.flush();  // write this page out and keep the persistence context small
+                entityManager.clear();
+            }
+            if (!subscribers.isEmpty()) {
+                after = subscribers.get(subscribers.size() - 1);
+            }
+        } while (subscribers.size() == fanoutPageSize);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.Notification;
+import com.example.forum_app.model.OutboxEntry;
+import com.example.forum_app.model.Post;
+import com.example.forum_app.model.Subscription;
+import com.example.forum_app.repository.NotificationRepository;
+import com.example.forum_app.repository.OutboxRepository;
+import com.example.forum_app.repository.SubscriptionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Thread subscriptions and the in-app inbox. New replies are only recorded in the outbox here,
+// inside the posting transaction; NotificationDispatcher does the fan-out later.
+@Service
+public class NotificationService {
+
+    public static final int INBOX_PAGE_SIZE = 50;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void subscribe(Long threadId, String username) {
+        if (subscriptionRepository.existsByThreadIdAndUsername(threadId, username)) {
+            return;
+        }
+        try {
+            subscriptionRepository.save(new Subscription(threadId, username));
+        } catch (DataIntegrityViolationException e) {
+            // subscribed concurrently (unique index); nothing to do
+        }
+    }
+
+    @Transactional
+    public void unsubscribe(Long threadId, String username) {
+        subscriptionRepository.deleteByThreadIdAndUsernameInBulk(threadId, username);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isSubscribed(Long threadId, String username) {
+        return subscriptionRepository.existsByThreadIdAndUsername(threadId, username);
+    }
+
+    // Call inside the transaction that saves the post; persisted with it (and JDBC-batched with it on bulk ingest).
+    public void enqueueReply(Long threadId, Post post) {
+        entityManager.persist(new OutboxEntry(threadId, post.getId(), post.getAuthor(), post.getCreatedAt()));
+    }
+
+    // Call inside the transaction that deletes the thread.
+    public void forgetThread(Long threadId) {
+        subscriptionRepository.deleteByThreadIdInBulk(threadId);
+        outboxRepository.deleteByThreadIdInBulk(threadId);
+        notificationRepository.deleteByThreadIdInBulk(threadId);
+    }
+
+    // From the primary: what is shown here is what markRead is later asked to mark.
+    @Transactional(readOnly = true)
+    public List<Notification> getLatest(String username) {
+        return PrimaryReads.call(() -> notificationRepository.findLatest(username, Pageable.ofSize(INBOX_PAGE_SIZE)));
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnread(String username) {
+        return notificationRepository.countByUsernameAndReadAtIsNull(username);
+    }
+
+    @Transactional
+    public void markRead(String username, Collection<Long> ids, LocalDateTime seenUpTo) {
+        if (!ids.isEmpty()) {
+            notificationRepository.markRead(username, ids, seenUpTo, LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.forum_app.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Where NotificationDispatcher delivers coalesced reply notifications. Every NotificationSink bean
+// gets every batch, inside the dispatcher's transaction: a sink writing to the forum database
+// commits together with the outbox cleanup, one talking to the outside world should defer its
+// sends with AfterCommit (and accept at-least-once delivery).
+public interface NotificationSink {
+
+    // "replies new replies in threadId for username", the latest one being lastPostId.
+    record Delivery(String username, Long threadId, String threadTitle, int replies,
+                    Long lastPostId, String lastAuthor, LocalDateTime lastPostedAt) {}
+
+    void deliver(List<Delivery> deliveries);
+}
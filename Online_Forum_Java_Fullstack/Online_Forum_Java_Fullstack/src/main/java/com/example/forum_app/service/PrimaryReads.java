@@ -0,0 +1,37 @@
+package com.example.forum_app.service;
+
+import java.util.function.Supplier;
+
+// Marks read-only work that must see every committed write, such as filling a cache shared by
+// all readers: ReplicaRoutingDataSource keeps it off the read replicas. Unlike a read-write
+// transaction this does not pin the user to the primary afterwards. The connection is chosen
+// by the first statement of a transaction, so wrap the work before that statement runs.
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {}
+
+    public static <T> T call(Supplier<T> work) {
+        if (ACTIVE.get() != null) {
+            return work.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.forum_app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token bucket in its GCRA form: per key we keep a single "theoretical arrival time" (TAT) in
+// an AtomicLong and advance it with a CAS, so the hot path takes no locks and, once a key has
+// been seen, allocates nothing. A request is allowed while TAT stays within burst * interval
+// of now; otherwise the caller learns how long to wait.
+//
+// Keys are checked per username and per client IP (separate maps, so no key strings are
+// built per request). An address can stand for many users behind one NAT or proxy, so it gets
+// its own, much looser limits. A per-minute rate of 0 turns that check off. Buckets whose TAT
+// has passed are full again and carry no state worth keeping; evictIdle() drops them. It first
+// retires a bucket by swapping its TAT for EVICTED, so a request racing the eviction either
+// wins (and the bucket stays) or sees EVICTED and moves on to a fresh bucket, never spending
+// a token in one that is already gone.
+public class RateLimiter {
+
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final String action;
+    private final long userIntervalNanos;
+    private final long userBurstNanos;
+    private final long ipIntervalNanos;
+    private final long ipBurstNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, AtomicLong> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> addresses = new ConcurrentHashMap<>();
+    private final Counter allowed;
+    private final Counter throttled;
+
+    public RateLimiter(String action, int perMinute, int burst, int ipPerMinute, int ipBurst, MeterRegistry meterRegistry) {
+        this(action, perMinute, burst, ipPerMinute, ipBurst, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(String action, int perMinute, int burst, int ipPerMinute, int ipBurst, MeterRegistry meterRegistry,
+                LongSupplier nanoClock) {
+        this.action = action;
+        this.userIntervalNanos = interval(action, perMinute, burst);
+        this.userBurstNanos = userIntervalNanos * burst;
+        this.ipIntervalNanos = interval(action + " (per address)", ipPerMinute, ipBurst);
+        this.ipBurstNanos = ipIntervalNanos * ipBurst;
+        this.nanoClock = nanoClock;
+        this.allowed = Counter.builder("forum.ratelimit.requests").tag("action", action).tag("outcome", "allowed")
+            .register(meterRegistry);
+        this.throttled = Counter.builder("forum.ratelimit.requests").tag("action", action).tag("outcome", "throttled")
+            .register(meterRegistry);
+        Gauge.builder("forum.ratelimit.buckets", this, RateLimiter::bucketCount)
+            .tag("action", action).register(meterRegistry);
+    }
+
+    public String getAction() { return action; }
+
+    // 0 when allowed, otherwise the nanoseconds until the request would be. A user denied by
+    // the IP bucket keeps the token it took from its own bucket.
+    public long tryAcquire(String username, String address) {
+        long now = nanoClock.getAsLong();
+        long wait = username != null && userIntervalNanos > 0 ? take(users, username, now, userIntervalNanos, userBurstNanos) : 0;
+        if (wait == 0 && address != null && ipIntervalNanos > 0) {
+            wait = take(addresses, address, now, ipIntervalNanos, ipBurstNanos);
+        }
+        (wait == 0 ? allowed : throttled).increment();
+        return wait;
+    }
+
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        evictIdle(users, now);
+        evictIdle(addresses, now);
+    }
+
+    // Package-private for tests.
+    int bucketCount() {
+        return users.size() + addresses.size();
+    }
+
+    // 0 when the check is off.
+    private static long interval(String action, int perMinute, int burst) {
+        if (perMinute < 0 || (perMinute > 0 && burst < 1)) {
+            throw new IllegalArgumentException("Invalid rate limit for " + action + ": " + perMinute
+                + " per minute, burst " + burst);
+        }
+        return perMinute > 0 ? Duration.ofMinutes(1).toNanos() / perMinute : 0;
+    }
+
+    // computeIfPresent keeps the check and the removal atomic with respect to computeIfAbsent.
+    private static void evictIdle(ConcurrentHashMap<String, AtomicLong> buckets, long now) {
+        for (String key : buckets.keySet()) {
+            buckets.computeIfPresent(key, (k, tat) -> {
+                long current = tat.get();
+                return current - now <= 0 && tat.compareAndSet(current, EVICTED) ? null : tat;
+            });
+        }
+    }
+
+    private long take(ConcurrentHashMap<String, AtomicLong> buckets, String key, long now,
+                      long intervalNanos, long burstNanos) {
+        AtomicLong tat = buckets.get(key);
+        while (true) {
+            if (tat == null) {
+                tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            long current = tat.get();
+            if (current == EVICTED) {
+                tat = null;  // evicted under us; its replacement starts full
+                continue;
+            }
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
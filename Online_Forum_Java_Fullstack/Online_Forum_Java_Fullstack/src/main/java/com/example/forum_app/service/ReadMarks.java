@@ -0,0 +1,271 @@
+package com.example.forum_app.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// One user's read state, kept small instead of a row per (user, thread):
+//  - baseline: anything last active at or before it counts as read ("mark all read", first visit)
+//  - per-category watermarks, for "mark this category read"
+//  - per-thread marks (thread id -> last activity seen) in two parallel arrays sorted by id,
+//    only for threads read since then; marks older than the read horizon are dropped because
+//    the horizon already covers them.
+// Times are epoch milliseconds. Stored as one blob of zig-zag varints with delta-encoded ids.
+// Every method synchronizes on the instance: the ReadTracker writer thread updates it while
+// request threads compute unread flags and the flush task encodes it. Marks are only ever
+// raised, so two copies (e.g. from two nodes) combine by taking the later value of each.
+final class ReadMarks {
+
+    private static final byte FORMAT = 1;
+
+    private long baseline;
+    private long[] categoryIds = new long[0];
+    private long[] categorySeen = new long[0];
+    private long[] threadIds = new long[16];
+    private long[] threadSeen = new long[16];
+    private int size;
+    private long version;  // bumped on every change, so a flush can tell whether it wrote the latest
+
+    ReadMarks(long baseline) {
+        this.baseline = baseline;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // Records that the thread was read with everything up to seen; false if nothing changed.
+    synchronized boolean markThread(long threadId, long seen) {
+        if (seen <= baseline) {
+            return false;
+        }
+        int i = Arrays.binarySearch(threadIds, 0, size, threadId);
+        if (i >= 0) {
+            if (threadSeen[i] >= seen) {
+                return false;
+            }
+            threadSeen[i] = seen;
+        } else {
+            i = -i - 1;
+            if (size == threadIds.length) {
+                threadIds = Arrays.copyOf(threadIds, size * 2);
+                threadSeen = Arrays.copyOf(threadSeen, size * 2);
+            }
+            System.arraycopy(threadIds, i, threadIds, i + 1, size - i);
+            System.arraycopy(threadSeen, i, threadSeen, i + 1, size - i);
+            threadIds[i] = threadId;
+            threadSeen[i] = seen;
+            size++;
+        }
+        version++;
+        return true;
+    }
+
+    // Everything in the category (or everywhere, when categoryId is null) active up to at is read.
+    synchronized void markCategory(Long categoryId, long at) {
+        if (categoryId == null) {
+            baseline = Math.max(baseline, at);
+            categoryIds = new long[0];
+            categorySeen = new long[0];
+            size = 0;
+        } else {
+            int i = Arrays.binarySearch(categoryIds, categoryId);
+            if (i >= 0) {
+                categorySeen[i] = Math.max(categorySeen[i], at);
+            } else {
+                i = -i - 1;
+                categoryIds = insert(categoryIds, i, categoryId);
+                categorySeen = insert(categorySeen, i, at);
+            }
+        }
+        version++;
+    }
+
+    // Folds in another copy of this user's marks (the stored one, possibly written by another
+    // node): the later baseline, category watermark and thread mark wins. Entries at or below
+    // the resulting baseline are dropped. False if nothing changed here.
+    synchronized boolean merge(ReadMarks other) {
+        long mergedBaseline = Math.max(baseline, other.baseline);
+        Merged categories = mergeSorted(categoryIds, categorySeen, categoryIds.length,
+            other.categoryIds, other.categorySeen, other.categoryIds.length, mergedBaseline);
+        Merged threads = mergeSorted(threadIds, threadSeen, size,
+            other.threadIds, other.threadSeen, other.size, mergedBaseline);
+        boolean changed = mergedBaseline != baseline
+            || !categories.matches(categoryIds, categorySeen, categoryIds.length)
+            || !threads.matches(threadIds, threadSeen, size);
+        if (!changed) {
+            return false;
+        }
+        baseline = mergedBaseline;
+        categoryIds = Arrays.copyOf(categories.ids(), categories.count());
+        categorySeen = Arrays.copyOf(categories.seen(), categories.count());
+        threadIds = Arrays.copyOf(threads.ids(), Math.max(16, threads.count()));
+        threadSeen = Arrays.copyOf(threads.seen(), Math.max(16, threads.count()));
+        size = threads.count();
+        version++;
+        return true;
+    }
+
+    synchronized boolean isUnread(long threadId, long categoryId, long lastActivity, long horizon) {
+        if (lastActivity <= Math.max(baseline, horizon)) {
+            return false;
+        }
+        int c = Arrays.binarySearch(categoryIds, categoryId);
+        if (c >= 0 && lastActivity <= categorySeen[c]) {
+            return false;
+        }
+        int t = Arrays.binarySearch(threadIds, 0, size, threadId);
+        return t < 0 || lastActivity > threadSeen[t];
+    }
+
+    // Drops marks the horizon makes redundant, then the oldest ones while over maxMarks (those
+    // threads may show as unread again, never the other way round).
+    synchronized void prune(long horizon, int maxMarks) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (threadSeen[i] > horizon) {
+                threadIds[kept] = threadIds[i];
+                threadSeen[kept] = threadSeen[i];
+                kept++;
+            }
+        }
+        boolean changed = kept != size;
+        size = kept;
+        if (size > maxMarks) {
+            long[] sorted = Arrays.copyOf(threadSeen, size);
+            Arrays.sort(sorted);
+            long cutoff = sorted[size - maxMarks];  // the newest maxMarks marks (ties may keep a few more)
+            kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (threadSeen[i] >= cutoff) {
+                    threadIds[kept] = threadIds[i];
+                    threadSeen[kept] = threadSeen[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            changed = true;
+        }
+        if (changed) {
+            version++;
+        }
+    }
+
+    synchronized byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + 6 * categoryIds.length + 8 * size);
+        out.write(FORMAT);
+        writeVarLong(out, baseline);
+        writeVarLong(out, categoryIds.length);
+        long previous = 0;
+        for (int i = 0; i < categoryIds.length; i++) {
+            writeVarLong(out, categoryIds[i] - previous);
+            writeVarLong(out, categorySeen[i] - baseline);
+            previous = categoryIds[i];
+        }
+        writeVarLong(out, size);
+        previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, threadIds[i] - previous);
+            writeVarLong(out, threadSeen[i] - baseline);
+            previous = threadIds[i];
+        }
+        return out.toByteArray();
+    }
+
+    static ReadMarks decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.get() != FORMAT) {
+            throw new IllegalArgumentException("Unknown read state format " + bytes[0]);
+        }
+        ReadMarks marks = new ReadMarks(readVarLong(in));
+        int categories = (int) readVarLong(in);
+        marks.categoryIds = new long[categories];
+        marks.categorySeen = new long[categories];
+        long previous = 0;
+        for (int i = 0; i < categories; i++) {
+            previous += readVarLong(in);
+            marks.categoryIds[i] = previous;
+            marks.categorySeen[i] = marks.baseline + readVarLong(in);
+        }
+        int threads = (int) readVarLong(in);
+        marks.threadIds = new long[Math.max(16, threads)];
+        marks.threadSeen = new long[Math.max(16, threads)];
+        previous = 0;
+        for (int i = 0; i < threads; i++) {
+            previous += readVarLong(in);
+            marks.threadIds[i] = previous;
+            marks.threadSeen[i] = marks.baseline + readVarLong(in);
+        }
+        marks.size = threads;
+        return marks;
+    }
+
+    // The first count entries of ids/seen.
+    private record Merged(long[] ids, long[] seen, int count) {
+        boolean matches(long[] otherIds, long[] otherSeen, int otherCount) {
+            return Arrays.equals(ids, 0, count, otherIds, 0, otherCount)
+                && Arrays.equals(seen, 0, count, otherSeen, 0, otherCount);
+        }
+    }
+
+    // Union of two id-sorted (id, seen) lists keeping the larger seen per id and only entries above floor.
+    private static Merged mergeSorted(long[] ids1, long[] seen1, int n1, long[] ids2, long[] seen2, int n2, long floor) {
+        long[] ids = new long[n1 + n2];
+        long[] seen = new long[n1 + n2];
+        int i = 0, j = 0, k = 0;
+        while (i < n1 || j < n2) {
+            long id;
+            long at;
+            if (j >= n2 || (i < n1 && ids1[i] < ids2[j])) {
+                id = ids1[i];
+                at = seen1[i++];
+            } else if (i >= n1 || ids2[j] < ids1[i]) {
+                id = ids2[j];
+                at = seen2[j++];
+            } else {
+                id = ids1[i];
+                at = Math.max(seen1[i++], seen2[j++]);
+            }
+            if (at > floor) {
+                ids[k] = id;
+                seen[k] = at;
+                k++;
+            }
+        }
+        return new Merged(ids, seen, k);
+    }
+
+    private static long[] insert(long[] array, int index, long value) {
+        long[] grown = new long[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, index);
+        grown[index] = value;
+        System.arraycopy(array, index, grown, index + 1, array.length - index);
+        return grown;
+    }
+
+    // Zig-zag varint: small magnitudes of either sign take few bytes.
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.ReadState;
+import com.example.forum_app.model.ThreadSummary;
+import com.example.forum_app.repository.ReadStateRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Which threads have activity a user has not seen yet. Each user's state is one ReadMarks,
+// cached in memory and stored as a single read_state row.
+//
+// Viewing a thread only drops a (user, thread, seen-up-to) event into a lock-free ring; one
+// writer thread applies the events to the in-memory marks, and a scheduled task writes every
+// changed user back in batches. Unread flags for a listing are computed from the cached marks
+// and the listing's own lastActivityAt, so they cost no query per thread. Marks still waiting
+// for the flush stay in the dirty map, which is also where a reload looks first.
+//
+// Any node may serve any user, so the stored row is never simply overwritten: the flush locks
+// it, merges it into the in-memory marks (which also brings this node up to date) and writes
+// the result. Cached marks are reloaded after forum.readstate.cache-ttl, which bounds how long
+// a node can show threads as unread that were read through another node.
+@Component
+public class ReadTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadTracker.class);
+    private static final int FLUSH_CHUNK = 500;
+
+    private record Seen(String username, long threadId, long seenUpTo) {}
+
+    @Autowired
+    private ReadStateRepository readStateRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MpscRingBuffer<Seen> ring;
+    private final Cache<String, ReadMarks> cache;
+    private final ConcurrentHashMap<String, ReadMarks> dirty = new ConcurrentHashMap<>();
+    private final Counter dropped;
+    private final Duration horizon;
+    private final int maxMarks;
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public ReadTracker(MeterRegistry meterRegistry,
+                       @Value("${forum.readstate.buffer-size:8192}") int bufferSize,
+                       @Value("${forum.readstate.cache-size:10000}") long cacheSize,
+                       @Value("${forum.readstate.cache-ttl:1m}") Duration cacheTtl,
+                       @Value("${forum.readstate.horizon:30d}") Duration horizon,
+                       @Value("${forum.readstate.max-marks:1000}") int maxMarks) {
+        this.ring = new MpscRingBuffer<>(bufferSize);
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheTtl)
+            .build();
+        this.horizon = horizon;
+        this.maxMarks = maxMarks;
+        this.dropped = Counter.builder("forum.readstate.dropped")
+            .description("Thread views not recorded because the ring buffer was full").register(meterRegistry);
+        Gauge.builder("forum.readstate.backlog", ring, MpscRingBuffer::size)
+            .description("Thread views waiting to be applied").register(meterRegistry);
+        Gauge.builder("forum.readstate.dirty", dirty, Map::size)
+            .description("Users whose read state is waiting to be written").register(meterRegistry);
+    }
+
+    // The user has seen the thread with all activity up to seenUpTo. Never blocks.
+    public void threadRead(String username, Long threadId, LocalDateTime seenUpTo) {
+        if (!ring.offer(new Seen(username, threadId, millis(seenUpTo)))) {
+            dropped.increment();
+        }
+    }
+
+    // Marks everything in the category (or everywhere, when categoryId is null) as read.
+    public void markAllRead(String username, Long categoryId) {
+        ReadMarks marks = marksOf(username);
+        marks.markCategory(categoryId, millis(LocalDateTime.now()));
+        dirty.put(username, marks);
+    }
+
+    // Ids of the given threads with activity the user has not seen.
+    public Set<Long> unreadIds(String username, List<ThreadSummary> threads) {
+        if (threads.isEmpty()) {
+            return Set.of();
+        }
+        ReadMarks marks = marksOf(username);
+        long floor = horizonMillis();
+        Set<Long> unread = new HashSet<>();
+        for (ThreadSummary thread : threads) {
+            if (marks.isUnread(thread.getId(), thread.getCategoryId(), millis(thread.getLastActivityAt()), floor)) {
+                unread.add(thread.getId());
+            }
+        }
+        return unread;
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = Thread.ofPlatform().daemon().name("read-state-writer").start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+
+    // Writes every changed user back: one locking SELECT per chunk for the existing rows, merged
+    // in, then batched INSERTs and UPDATEs. Users changed again while this ran stay dirty for the
+    // next round; a chunk that fails (e.g. two nodes inserting the same new user) is retried then.
+    @Scheduled(fixedDelayString = "${forum.readstate.flush-interval-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, ReadMarks>> pending = new ArrayList<>(dirty.entrySet());
+        long floor = horizonMillis();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < pending.size(); from += FLUSH_CHUNK) {
+            List<Map.Entry<String, ReadMarks>> chunk = pending.subList(from, Math.min(from + FLUSH_CHUNK, pending.size()));
+            Map<String, Long> versions;
+            try {
+                versions = tx.execute(status -> write(chunk, floor));
+            } catch (RuntimeException e) {
+                log.warn("Could not write read state for {} users, retrying later", chunk.size(), e);
+                continue;
+            }
+            for (Map.Entry<String, ReadMarks> entry : chunk) {
+                long written = versions.get(entry.getKey());
+                dirty.computeIfPresent(entry.getKey(),
+                    (username, marks) -> marks == entry.getValue() && marks.version() == written ? null : marks);
+            }
+        }
+    }
+
+    // Returns the version of each user's marks that was written.
+    private Map<String, Long> write(List<Map.Entry<String, ReadMarks>> chunk, long floor) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, ReadState> existing = new HashMap<>();
+        for (ReadState state : readStateRepository.lockAllById(chunk.stream().map(Map.Entry::getKey).toList())) {
+            existing.put(state.getUsername(), state);
+        }
+        Map<String, Long> versions = new HashMap<>();
+        for (Map.Entry<String, ReadMarks> entry : chunk) {
+            String username = entry.getKey();
+            ReadMarks marks = entry.getValue();
+            ReadState state = existing.get(username);
+            boolean created = state == null;
+            if (created) {
+                state = new ReadState(username);
+            }
+            byte[] bytes;
+            synchronized (marks) {
+                if (!created) {
+                    mergeStored(username, marks, state.getMarks());
+                }
+                marks.prune(floor, maxMarks);
+                versions.put(username, marks.version());
+                bytes = marks.encode();
+            }
+            state.setMarks(bytes);
+            state.setUpdatedAt(now);
+            if (created) {
+                entityManager.persist(state);
+            }
+        }
+        return versions;
+    }
+
+    private void mergeStored(String username, ReadMarks marks, byte[] stored) {
+        try {
+            marks.merge(ReadMarks.decode(stored));
+        } catch (RuntimeException e) {
+            log.warn("Stored read state of {} is unreadable, replacing it", username, e);
+        }
+    }
+
+    private ReadMarks marksOf(String username) {
+        return cache.get(username, this::load);
+    }
+
+    private ReadMarks load(String username) {
+        ReadMarks pending = dirty.get(username);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            ReadState state = readStateRepository.findById(username).orElse(null);
+            if (state != null) {
+                return ReadMarks.decode(state.getMarks());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read read state of {}, starting over", username, e);
+        }
+        // First visit: what is already there counts as read. Dirty so the baseline is kept.
+        ReadMarks fresh = new ReadMarks(millis(LocalDateTime.now()));
+        dirty.put(username, fresh);
+        return fresh;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int applied = 0;
+        Seen seen;
+        while ((seen = ring.poll()) != null) {
+            try {
+                ReadMarks marks = marksOf(seen.username());
+                if (marks.markThread(seen.threadId(), seen.seenUpTo())) {
+                    dirty.put(seen.username(), marks);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not record thread view of {}", seen.username(), e);
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    private long horizonMillis() {
+        return millis(LocalDateTime.now().minus(horizon));
+    }
+
+    // Timestamps here are LocalDateTime throughout, so any fixed offset gives a consistent ordering.
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.forum_app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// One-shot backfill of ForumThread.replyCount/lastPostAt for data created before the
+// columns existed. Start the app once with forum.maintenance.rebuild-reply-stats=true.
+@Component
+@ConditionalOnProperty(name = "forum.maintenance.rebuild-reply-stats", havingValue = "true")
+public class ReplyStatsRebuildJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplyStatsRebuildJob.class);
+
+    @Autowired
+    private ForumService forumService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        int updated = forumService.rebuildReplyStats();
+        log.info("Rebuilt reply stats for {} threads in {} ms", updated, System.currentTimeMillis() - start);
+    }
+}
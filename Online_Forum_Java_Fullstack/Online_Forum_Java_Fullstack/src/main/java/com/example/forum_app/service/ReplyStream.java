@@ -0,0 +1,59 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.CursorPage;
+import com.example.forum_app.model.PostSummary;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// All replies of a thread, oldest first, as a lazy Iterable for th:each. It starts with a page
+// already in hand and fetches the following keyset pages only as the template reaches them,
+// so at most one chunk is in memory. beforeFetch runs ahead of every fetch; the controller
+// uses it to flush what has been rendered so far to the client.
+public class ReplyStream implements Iterable<PostSummary> {
+
+    @FunctionalInterface
+    public interface PageFetcher {
+        CursorPage<PostSummary> fetchAfter(LocalDateTime createdAt, Long id);
+    }
+
+    private final CursorPage<PostSummary> first;
+    private final PageFetcher fetcher;
+    private final Runnable beforeFetch;
+
+    public ReplyStream(CursorPage<PostSummary> first, PageFetcher fetcher, Runnable beforeFetch) {
+        this.first = first;
+        this.fetcher = fetcher;
+        this.beforeFetch = beforeFetch;
+    }
+
+    @Override
+    public Iterator<PostSummary> iterator() {
+        return new Iterator<>() {
+            private CursorPage<PostSummary> page = first;
+            private Iterator<PostSummary> items = first.getItems().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!items.hasNext()) {
+                    if (!page.hasNext()) {
+                        return false;
+                    }
+                    beforeFetch.run();
+                    page = fetcher.fetchAfter(page.getNextCreatedAt(), page.getNextId());
+                    items = page.getItems().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public PostSummary next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return items.next();
+            }
+        };
+    }
+}
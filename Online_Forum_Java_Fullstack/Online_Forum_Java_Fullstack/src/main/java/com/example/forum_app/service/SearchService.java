@@ -0,0 +1,334 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.ForumThread;
+import com.example.forum_app.model.Post;
+import com.example.forum_app.model.SearchHit;
+import com.example.forum_app.model.SearchResults;
+import com.example.forum_app.repository.ForumThreadRepository;
+import com.example.forum_app.repository.PostRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Embedded Lucene index over thread titles/bodies and reply bodies.
+//
+// ForumService feeds it incrementally; every write is applied only after the database
+// transaction commits (see AfterCommit). Readers use a near-real-time searcher that is
+// refreshed on a short interval, and the index is committed to disk periodically and on
+// shutdown. With forum.search.index-dir left empty the index lives in memory, which
+// matches the in-memory H2 database used in development.
+// While rebuild() runs, incremental writes are queued and applied once it has committed: the
+// rebuild reads the tables in batches over time, so a reply added or deleted meanwhile could
+// otherwise be indexed twice or come back after its delete.
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MAX_RESULT_WINDOW = 1000;  // deepest hit we are willing to page to
+    private static final int SNIPPET_LENGTH = 240;
+    private static final int REBUILD_BATCH = 500;
+
+    private static final String UID = "uid";
+    private static final String THREAD_ID = "threadId";
+    private static final String POST_ID = "postId";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String SNIPPET = "snippet";
+    private static final String AUTHOR = "author";
+    private static final String CREATED_AT = "createdAt";
+
+    @Autowired
+    private ForumThreadRepository threadRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${forum.search.index-dir:}")
+    private String indexDir;
+
+    @Value("${forum.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    // Incremental writes hold the read lock; rebuild() takes the write lock only to switch queueing on and off.
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private Queue<IndexWrite> deferred;  // non-null while a rebuild runs
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() throws IOException {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    // ---- incremental updates (called from ForumService inside its transaction) ----
+
+    public void indexThread(ForumThread thread) {
+        Document doc = threadDocument(thread);
+        Term uid = new Term(UID, "thread-" + thread.getId());
+        AfterCommit.run(() -> write(() -> writer.updateDocument(uid, doc)));
+    }
+
+    public void indexPost(Post post) {
+        Document doc = postDocument(post);
+        Term uid = new Term(UID, "post-" + post.getId());
+        AfterCommit.run(() -> write(() -> writer.updateDocument(uid, doc)));
+    }
+
+    // Removes the thread and every reply indexed under it.
+    public void removeThread(Long threadId) {
+        Term term = new Term(THREAD_ID, threadId.toString());
+        AfterCommit.run(() -> write(() -> writer.deleteDocuments(term)));
+    }
+
+    public void removePost(Long postId) {
+        Term uid = new Term(UID, "post-" + postId);
+        AfterCommit.run(() -> write(() -> writer.deleteDocuments(uid)));
+    }
+
+    // ---- queries ----
+
+    public SearchResults search(String queryText, int page, int size) {
+        long start = System.nanoTime();
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * limit;
+        String trimmed = queryText == null ? "" : queryText.trim();
+        if (trimmed.isEmpty() || offset >= MAX_RESULT_WINDOW) {
+            return new SearchResults(trimmed, List.of(), 0, page, limit, 0);
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, 2.0f, CONTENT, 1.0f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(trimmed);
+        if (query == null) {  // only stop words / operators
+            return new SearchResults(trimmed, List.of(), 0, page, limit, 0);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, offset + limit);
+                List<SearchHit> hits = new ArrayList<>(limit);
+                for (int i = offset; i < top.scoreDocs.length; i++) {
+                    ScoreDoc sd = top.scoreDocs[i];
+                    hits.add(toHit(searcher.storedFields().document(sd.doc), sd.score));
+                }
+                fillThreadTitles(hits);
+                long tookMillis = (System.nanoTime() - start) / 1_000_000;
+                return new SearchResults(trimmed, hits, top.totalHits.value, page, limit, tookMillis);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed: " + e.getMessage(), e);
+        }
+    }
+
+    // ---- maintenance ----
+
+    // Drops the index and re-reads every thread and post in id order, in bounded batches.
+    public void rebuild() throws IOException {
+        rebuildLock.writeLock().lock();
+        try {
+            deferred = new ConcurrentLinkedQueue<>();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        try {
+            reindexAll();
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                int replayed = deferred.size();
+                deferred.forEach(this::apply);
+                deferred = null;
+                log.debug("Applied {} index writes made during the rebuild", replayed);
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void reindexAll() throws IOException {
+        long start = System.currentTimeMillis();
+        writer.deleteAll();
+        long threads = 0;
+        long posts = 0;
+        Long lastId = 0L;
+        List<ForumThread> threadBatch;
+        while (!(threadBatch = threadRepository.findByIdGreaterThanAndDeletePendingFalseOrderByIdAsc(lastId, Pageable.ofSize(REBUILD_BATCH))).isEmpty()) {
+            for (ForumThread t : threadBatch) {
+                writer.addDocument(threadDocument(t));
+            }
+            threads += threadBatch.size();
+            lastId = threadBatch.get(threadBatch.size() - 1).getId();
+        }
+        lastId = 0L;
+        List<Post> postBatch;
+        while (!(postBatch = postRepository.findBatchAfter(lastId, Pageable.ofSize(REBUILD_BATCH))).isEmpty()) {
+            for (Post p : postBatch) {
+                writer.addDocument(postDocument(p));
+            }
+            posts += postBatch.size();
+            lastId = postBatch.get(postBatch.size() - 1).getId();
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+        log.info("Search index rebuilt: {} threads, {} posts in {} ms", threads, posts, System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${forum.search.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${forum.search.commit-interval-ms:60000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();  // commits pending changes
+        directory.close();
+    }
+
+    // ---- documents ----
+
+    private Document threadDocument(ForumThread thread) {
+        Document doc = new Document();
+        doc.add(new StringField(UID, "thread-" + thread.getId(), Field.Store.NO));
+        doc.add(new StringField(THREAD_ID, thread.getId().toString(), Field.Store.YES));
+        doc.add(new TextField(TITLE, thread.getTitle(), Field.Store.YES));
+        doc.add(new TextField(CONTENT, thread.getContent(), Field.Store.NO));
+        addCommonFields(doc, thread.getContent(), thread.getAuthor(), thread.getCreatedAt());
+        return doc;
+    }
+
+    private Document postDocument(Post post) {
+        Document doc = new Document();
+        doc.add(new StringField(UID, "post-" + post.getId(), Field.Store.NO));
+        doc.add(new StringField(THREAD_ID, post.getThread().getId().toString(), Field.Store.YES));
+        doc.add(new StoredField(POST_ID, post.getId()));
+        doc.add(new TextField(CONTENT, post.getContent(), Field.Store.NO));
+        addCommonFields(doc, post.getContent(), post.getAuthor(), post.getCreatedAt());
+        return doc;
+    }
+
+    private void addCommonFields(Document doc, String content, String author, LocalDateTime createdAt) {
+        String snippet = content.length() > SNIPPET_LENGTH ? content.substring(0, SNIPPET_LENGTH) + "…" : content;
+        doc.add(new StoredField(SNIPPET, snippet));
+        doc.add(new StoredField(AUTHOR, author));
+        doc.add(new StoredField(CREATED_AT, createdAt.toEpochSecond(ZoneOffset.UTC)));
+    }
+
+    private SearchHit toHit(Document doc, float score) {
+        Long threadId = Long.valueOf(doc.get(THREAD_ID));
+        Long postId = doc.getField(POST_ID) != null ? doc.getField(POST_ID).numericValue().longValue() : null;
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+            doc.getField(CREATED_AT).numericValue().longValue(), 0, ZoneOffset.UTC);
+        return new SearchHit(threadId, postId, doc.get(TITLE), doc.get(SNIPPET), doc.get(AUTHOR), createdAt, score);
+    }
+
+    // One IN query for the whole page instead of storing (editable) thread titles on every reply.
+    private void fillThreadTitles(List<SearchHit> hits) {
+        Set<Long> ids = new HashSet<>();
+        for (SearchHit hit : hits) {
+            if (hit.isPost()) ids.add(hit.getThreadId());
+        }
+        if (ids.isEmpty()) return;
+        Map<Long, String> titles = new HashMap<>();
+        for (Object[] row : threadRepository.findTitlesByIds(ids)) {
+            titles.put((Long) row[0], (String) row[1]);
+        }
+        for (SearchHit hit : hits) {
+            if (hit.isPost()) hit.setThreadTitle(titles.get(hit.getThreadId()));
+        }
+    }
+
+    private interface IndexWrite {
+        void apply() throws IOException;
+    }
+
+    // Index writes happen after commit; a failure must not surface as a failed request,
+    // and a later rebuild() brings the index back in line with the database.
+    private void write(IndexWrite action) {
+        rebuildLock.readLock().lock();
+        try {
+            if (deferred != null) {
+                deferred.add(action);
+            } else {
+                apply(action);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void apply(IndexWrite action) {
+        try {
+            action.apply();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Search index update failed", e);
+        }
+    }
+}
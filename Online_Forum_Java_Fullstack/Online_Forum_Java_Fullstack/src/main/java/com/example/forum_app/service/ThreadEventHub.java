@@ -0,0 +1,111 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.PostSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process publish/subscribe hub that pushes new replies to readers of a thread over
+// Server-Sent Events.
+//
+// Each subscriber is an SseEmitter on an async servlet request, so an idle connection holds
+// no request thread; thousands of open pages cost only their emitter and socket. Publishing
+// happens after commit and hands the fan-out to a virtual thread, so ForumService.createPost
+// never waits on a slow client. A periodic heartbeat keeps proxies from closing idle streams
+// and flushes out dead connections.
+@Component
+public class ThreadEventHub {
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMillis;
+
+    public ThreadEventHub(MeterRegistry meterRegistry,
+                          @Value("${forum.live.timeout:30m}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("forum.live.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open Server-Sent Event streams on thread pages")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long threadId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribers.compute(threadId, (id, set) -> {
+            Set<SseEmitter> emitters = set != null ? set : ConcurrentHashMap.newKeySet();
+            emitters.add(emitter);
+            return emitters;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(threadId, emitter));
+        emitter.onTimeout(() -> unsubscribe(threadId, emitter));
+        emitter.onError(e -> unsubscribe(threadId, emitter));
+        return emitter;
+    }
+
+    // Call from inside the writing transaction; readers are only told about committed replies.
+    public void publish(PostSummary post) {
+        AfterCommit.run(() -> {
+            Set<SseEmitter> emitters = subscribers.get(post.getThreadId());
+            if (emitters == null || emitters.isEmpty()) return;
+            fanOut.execute(() -> {
+                SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name("post")
+                    .id(post.getId().toString())
+                    .data(post);
+                for (SseEmitter emitter : emitters) {
+                    send(post.getThreadId(), emitter, event);
+                }
+            });
+        });
+    }
+
+    // Runs on the shared scheduler thread, so it only queues the pings: each one is sent on its
+    // own virtual thread and a stalled client cannot hold up the other scheduled jobs (or the
+    // other clients). The builder is not thread-safe, hence one per send.
+    @Scheduled(fixedDelayString = "${forum.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((threadId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                fanOut.execute(() -> send(threadId, emitter, SseEmitter.event().comment("ping")));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        fanOut.shutdown();
+    }
+
+    private void send(Long threadId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container will also call onError/onCompletion.
+            unsubscribe(threadId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long threadId, SseEmitter emitter) {
+        subscribers.computeIfPresent(threadId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
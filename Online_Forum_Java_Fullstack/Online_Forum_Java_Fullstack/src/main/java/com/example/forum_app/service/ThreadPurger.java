@@ -0,0 +1,76 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.repository.ForumThreadRepository;
+import com.example.forum_app.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Background half of ForumService.deleteThread for large threads. The thread is already marked
+// delete-pending (and invisible); its replies go in id-ordered chunks, one short transaction
+// each, then the thread row itself. Replies are refused once the mark is committed, but one that
+// was already in flight can still land after the last chunk; the thread delete then fails on the
+// foreign key and the purge goes round again. Threads left pending by a restart are picked up on startup.
+@Service
+public class ThreadPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadPurger.class);
+    private static final int MAX_ROUNDS = 10;
+
+    @Autowired
+    private ForumThreadRepository threadRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${forum.delete.chunk-size:1000}")
+    private int chunkSize;
+
+    @Async
+    public void purge(Long threadId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long started = System.currentTimeMillis();
+        long deleted = 0;
+        for (int round = 1; round <= MAX_ROUNDS; round++) {
+            int chunk;
+            do {
+                chunk = tx.execute(status -> {
+                    List<Long> ids = postRepository.findIdsByThreadId(threadId, Pageable.ofSize(chunkSize));
+                    return ids.isEmpty() ? 0 : postRepository.deleteByIdIn(ids);
+                });
+                deleted += chunk;
+            } while (chunk > 0);
+            try {
+                tx.executeWithoutResult(status -> threadRepository.deleteInBulk(threadId));
+                log.info("Purged thread {} ({} replies) in {} ms", threadId, deleted, System.currentTimeMillis() - started);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.info("Thread {} got a reply while being purged, going round again", threadId);
+            }
+        }
+        log.warn("Could not purge thread {} after {} rounds; it stays hidden and is retried on the next start",
+            threadId, MAX_ROUNDS);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        for (Long threadId : threadRepository.findDeletePendingIds()) {
+            purge(threadId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.forum_app.service;
+
+import com.example.forum_app.model.ThreadView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cache of assembled thread pages (ThreadView), keyed by thread id, reply cursor and a
+// per-thread version stamp.
+//
+// Invalidation never touches the cached pages: it moves the thread to a new stamp taken from
+// a global clock, which makes every page cached under the old stamp unreachable until it is
+// evicted. Because a reader takes the stamp before it loads, a page rendered from data read
+// before a write is filed under the old stamp and can never be served after the write (which
+// holds because loaders read from the primary, see ForumService.getThreadView). If a
+// thread's stamp is evicted, the next reader gets a fresh, never-used stamp, so eviction is
+// always safe as well.
+@Component
+public class ThreadViewCache {
+
+    private record Key(long threadId, long version, LocalDateTime after, Long afterId, int size) {}
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Long, Long> versions;
+    private final Cache<Key, ThreadView> views;
+
+    public ThreadViewCache(MeterRegistry meterRegistry,
+                           @Value("${forum.cache.thread-views.max-weight-kb:65536}") long maxWeightKb,
+                           @Value("${forum.cache.thread-views.ttl:10m}") Duration ttl) {
+        this.versions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(ttl.multipliedBy(2))
+            .build();
+        this.views = Caffeine.newBuilder()
+            .maximumWeight(maxWeightKb * 1024 / 2)  // weights are in chars (2 bytes each)
+            .weigher((Key key, ThreadView view) -> view.estimatedSize())
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        // Same tag keys as the Spring-managed caches, which Prometheus requires for one meter name.
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "threadViews", "cache.manager", "threadViewCache", "name", "threadViews");
+    }
+
+    public ThreadView get(Long threadId, LocalDateTime after, Long afterId, int size, Supplier<ThreadView> loader) {
+        long version = versions.get(threadId, id -> clock.incrementAndGet());
+        return views.get(new Key(threadId, version, after, afterId, size), key -> loader.get());
+    }
+
+    // Call from inside the writing transaction; the stamp moves only once the write has committed.
+    public void invalidate(Long threadId) {
+        AfterCommit.run(() -> versions.put(threadId, clock.incrementAndGet()));
+    }
+
+    // For writes that show up on every thread page (a category rename). Dropping all stamps is
+    // the same as evicting them: each thread gets a fresh one on its next read.
+    public void invalidateAll() {
+        AfterCommit.run(versions::invalidateAll);
+    }
+}
@@ -3,7 +3,11 @@ package com.example.forum_app.service;
 import com.example.forum_app.model.User;
 import com.example.forum_app.model.CustomUserDetails;
 import com.example.forum_app.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,15 +16,31 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
+// Every login lands in loadUserByUsername. Resolved principals are cached for a few minutes
+// (forum.auth.principal-cache.ttl); usernames that were just looked up and not found are
+// remembered too, so repeated unknown-user attempts skip the database. The caches are per node
+// and the app itself never changes a password or role, so a change made directly in the
+// database takes effect everywhere within the TTL.
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    public static final String PRINCIPALS = "principals";
+    public static final String UNKNOWN_USERS = "unknownUsers";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private AuditLog auditLog;
+
     @Transactional
     public User registerUser(User user) {
         user.setUsername(user.getUsername().trim().toLowerCase());
@@ -37,10 +57,11 @@ public class UserService implements UserDetailsService {
 
         try {
             User savedUser = userRepository.save(user);
-            System.out.println("User saved successfully: " + savedUser.getUsername());
+            evictAfterCommit(savedUser.getUsername());
+            AfterCommit.run(() -> auditLog.userRegistered(savedUser.getUsername()));
             return savedUser;
         } catch (Exception e) {
-            System.err.println("Error saving user: " + e.getMessage());
+            log.warn("Error saving user {}: {}", user.getUsername(), e.getMessage());
             throw new RuntimeException("Registration failed: " + e.getMessage());
         }
     }
@@ -48,16 +69,44 @@ public class UserService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         final String trimmedUsername = username.trim().toLowerCase();
-        System.out.println("Attempting to load user: " + trimmedUsername);
 
-        User user = userRepository.findByUsername(trimmedUsername)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + trimmedUsername));
+        // Always hand out a copy: Spring Security erases the password of the principal it authenticated.
+        CustomUserDetails cached = principals().get(trimmedUsername, CustomUserDetails.class);
+        if (cached != null) {
+            return cached.copy();
+        }
+        if (unknownUsers().get(trimmedUsername) != null) {
+            throw new UsernameNotFoundException("User not found: " + trimmedUsername);
+        }
 
-        System.out.println("User found: " + user.getUsername() + ", Role: " + user.getRole());
-        return new CustomUserDetails(user);
+        User user = userRepository.findByUsername(trimmedUsername).orElse(null);
+        if (user == null) {
+            unknownUsers().put(trimmedUsername, Boolean.TRUE);
+            throw new UsernameNotFoundException("User not found: " + trimmedUsername);
+        }
+        CustomUserDetails details = new CustomUserDetails(user);
+        principals().put(trimmedUsername, details);
+        return details.copy();
     }
 
     public List<User> getUsersByRole(String role) {
         return userRepository.findByRole(role);
     }
+
+    // Evict once the new row is visible, so a concurrent login cannot re-cache the old state.
+    // Only reaches this node's caches; elsewhere "unknown user" expires with its short TTL.
+    private void evictAfterCommit(String username) {
+        AfterCommit.run(() -> {
+            principals().evict(username);
+            unknownUsers().evict(username);
+        });
+    }
+
+    private Cache principals() {
+        return cacheManager.getCache(PRINCIPALS);
+    }
+
+    private Cache unknownUsers() {
+        return cacheManager.getCache(UNKNOWN_USERS);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.example.forum_app.config;
+
+import com.example.forum_app.service.PrimaryReads;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Routes between two separate in-memory H2 databases, each holding a row that names it, so every
+ * read shows which one served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final JdbcDataSource primary = database("primary");
+    private final JdbcDataSource replicaDb = database("replica");
+    private volatile boolean replicaDown;
+    private final DataSource replica = new DelegatingDataSource(replicaDb) {
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (replicaDown) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    };
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        route(10_000);
+        new JdbcTemplate(replicaDb).execute("CREATE TABLE replica_lag (lag_ms BIGINT)");
+        new JdbcTemplate(replicaDb).update("INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        routing.checkReplicas();
+
+        assertEquals("replica", readOnly.execute(status -> source()));
+        assertEquals("primary", readWrite.execute(status -> source()));
+        assertEquals("primary", source());  // no transaction at all
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() {
+        new JdbcTemplate(replicaDb).update("UPDATE replica_lag SET lag_ms = 60000");
+        routing.checkReplicas();
+        assertFalse(routing.getReplicas().get(0).isUsable());
+        assertEquals("primary", readOnly.execute(status -> source()));
+
+        new JdbcTemplate(replicaDb).update("UPDATE replica_lag SET lag_ms = 200");
+        routing.checkReplicas();
+        assertEquals(200, routing.getReplicas().get(0).getLagMillis());
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        routing.checkReplicas();
+        replicaDown = true;
+
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertFalse(routing.getReplicas().get(0).isUsable());
+
+        replicaDown = false;
+        routing.checkReplicas();
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void writerReadsFromThePrimaryForAWhile() throws InterruptedException {
+        route(200);
+        routing.checkReplicas();
+
+        as("alice");
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE marker SET name = name"));
+        assertEquals("primary", readOnly.execute(status -> source()));
+
+        as("bob");
+        assertEquals("replica", readOnly.execute(status -> source()));
+
+        Thread.sleep(300);
+        as("alice");
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void pinTravelsWithTheSessionToOtherNodes() {
+        route(10_000);
+        ReplicaRoutingDataSource nodeA = routing;
+        TransactionTemplate writeOnA = readWrite;
+        route(10_000);  // a second node: its own routing state, same session store
+        nodeA.checkReplicas();
+        routing.checkReplicas();
+
+        MockHttpSession session = new MockHttpSession();
+        as("alice");
+        inRequest(session);
+        writeOnA.executeWithoutResult(status -> jdbc.update("UPDATE marker SET name = name"));
+        assertEquals(0, nodeA.getPinnedUsers());
+
+        inRequest(session);
+        assertEquals("primary", readOnly.execute(status -> source()));
+
+        inRequest(new MockHttpSession());  // same user, another browser
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void primaryReadsSkipTheReplicaWithoutPinning() {
+        routing.checkReplicas();
+
+        as("alice");
+        assertEquals("primary", readOnly.execute(status -> PrimaryReads.call(this::source)));
+        assertEquals(0, routing.getPinnedUsers());
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() {
+        routing.checkReplicas();
+
+        as("alice");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("UPDATE marker SET name = name");
+            status.setRollbackOnly();
+        });
+        assertEquals(0, routing.getPinnedUsers());
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    private void route(long stickyMillis) {
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica),
+            "SELECT lag_ms FROM replica_lag", 5000, stickyMillis);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String source() {
+        return jdbc.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static void inRequest(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static void as(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
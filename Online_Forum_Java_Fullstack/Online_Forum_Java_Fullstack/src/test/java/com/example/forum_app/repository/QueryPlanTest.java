@@ -0,0 +1,105 @@
+package com.example.forum_app.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs the hot repository queries, captures the SQL Hibernate actually sends and asks H2 to
+ * EXPLAIN it. Fails if any of them plans a full table scan.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.forum_app.repository.QueryPlanTest$Recorder",
+    "forum.search.rebuild-on-startup=false"
+})
+class QueryPlanTest {
+
+    // Only statements from the test thread; scheduled jobs (outbox polling etc.) run alongside.
+    public static class Recorder implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+        static volatile Thread owner;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == owner) {
+                SQL.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private ForumThreadRepository threadRepository;
+    @Autowired private PostRepository postRepository;
+    @Autowired private JdbcTemplate jdbc;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void clear() {
+        Recorder.owner = Thread.currentThread();
+        Recorder.SQL.clear();
+    }
+
+    @Test
+    void userLookupsUseIndexes() {
+        assertIndexed(() -> userRepository.findByUsername("Alice"));
+        assertIndexed(() -> userRepository.findByEmail("alice@example.com"));
+    }
+
+    @Test
+    void threadListingsUseIndexes() {
+        assertIndexed(() -> threadRepository.findLatest(Pageable.ofSize(20)));
+        assertIndexed(() -> threadRepository.findLatestBefore(now, 10L, Pageable.ofSize(20)));
+        assertIndexed(() -> threadRepository.findLatestInCategory(1L, Pageable.ofSize(20)));
+        assertIndexed(() -> threadRepository.findLatestInCategoryBefore(1L, now, 10L, Pageable.ofSize(20)));
+        assertIndexed(() -> threadRepository.findByCategoryId(1L));
+    }
+
+    @Test
+    void replyPagesUseIndexes() {
+        assertIndexed(() -> postRepository.findFirstReplies(1L, Pageable.ofSize(50)));
+        assertIndexed(() -> postRepository.findRepliesAfter(1L, now, 10L, Pageable.ofSize(50)));
+        assertIndexed(() -> postRepository.findByThreadId(1L));
+    }
+
+    private void assertIndexed(Runnable query) {
+        Recorder.SQL.clear();
+        query.run();
+        String sql = Recorder.SQL.stream().filter(s -> s.startsWith("select")).reduce((a, b) -> b).orElse(null);
+        assertNotNull(sql, "no select captured");
+        String plan = explain(sql);
+        assertFalse(plan.contains("tableScan"), () -> "full scan in plan:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbc.execute((java.sql.Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                int params = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= params; i++) {
+                    ps.setObject(i, 1);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+}
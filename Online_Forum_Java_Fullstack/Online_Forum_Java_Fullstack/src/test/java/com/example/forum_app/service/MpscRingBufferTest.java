@@ -0,0 +1,129 @@
+package com.example.forum_app.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ring mechanics on one thread, then several producers against one consumer.
+ */
+class MpscRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(4, new MpscRingBuffer<>(3).capacity());
+        assertEquals(4, new MpscRingBuffer<>(4).capacity());
+        assertEquals(8, new MpscRingBuffer<>(5).capacity());
+        assertEquals(1024, new MpscRingBuffer<>(1000).capacity());
+        assertEquals(1024, new MpscRingBuffer<>(1024).capacity());
+        for (int requested = 0; requested <= 2; requested++) {
+            int capacity = new MpscRingBuffer<>(requested).capacity();
+            assertTrue(capacity >= 2 && Integer.bitCount(capacity) == 1, "capacity for " + requested + ": " + capacity);
+        }
+    }
+
+    @Test
+    void pollsInOfferOrder() {
+        MpscRingBuffer<String> ring = new MpscRingBuffer<>(8);
+        assertNull(ring.poll(), "empty");
+        ring.offer("a");
+        ring.offer("b");
+        ring.offer("c");
+        assertEquals(3, ring.size());
+        assertEquals("a", ring.poll());
+        assertEquals("b", ring.poll());
+        assertEquals("c", ring.poll());
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndAcceptsAgainOnceDrained() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i), "offer " + i);
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4), "one slot was freed");
+        assertFalse(ring.offer(5));
+        for (int expected = 1; expected <= 4; expected++) {
+            assertEquals(expected, ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void wrapsAroundManyLaps() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(ring.offer(i));
+            assertTrue(ring.offer(-i));
+            assertEquals(i, ring.poll());
+            assertEquals(-i, ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    @Timeout(30)
+    void concurrentProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Long> ring = new MpscRingBuffer<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    Long item = producer * perProducer + i;
+                    while (!ring.offer(item)) {
+                        Thread.yield();  // full: let the consumer run
+                    }
+                }
+            }, "producer-" + p);
+            thread.start();
+            threads.add(thread);
+        }
+
+        // Each producer's items must arrive in the order it offered them, so the next one
+        // expected from each producer is enough to catch both losses and duplicates.
+        long[] next = new long[producers];
+        start.countDown();
+        for (long received = 0; received < (long) producers * perProducer; ) {
+            Long item = ring.poll();
+            if (item == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = (int) (item / perProducer);
+            assertEquals(next[producer], item % perProducer, "producer " + producer);
+            next[producer]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(ring.poll(), "nothing extra");
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, next[p], "producer " + p);
+        }
+    }
+}
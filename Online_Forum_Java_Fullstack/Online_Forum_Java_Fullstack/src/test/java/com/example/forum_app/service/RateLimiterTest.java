@@ -0,0 +1,153 @@
+package com.example.forum_app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA behaviour against a hand-driven clock: 6 per minute is one token every 10 seconds.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now = 1_000 * SECOND;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private RateLimiter limiter(int perMinute, int burst, int ipPerMinute, int ipBurst) {
+        return new RateLimiter("test", perMinute, burst, ipPerMinute, ipBurst, registry, () -> now);
+    }
+
+    @Test
+    void allowsTheBurstThenThrottles() {
+        RateLimiter limiter = limiter(6, 3, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", null), "request " + i);
+        }
+        assertTrue(limiter.tryAcquire("alice", null) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", null), "other users have their own bucket");
+    }
+
+    @Test
+    void returnsTheTimeUntilTheNextToken() {
+        RateLimiter limiter = limiter(6, 3, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", null);
+        }
+        assertEquals(10 * SECOND, limiter.tryAcquire("alice", null));
+        now += 4 * SECOND;
+        assertEquals(6 * SECOND, limiter.tryAcquire("alice", null), "a denied request takes no token");
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        RateLimiter limiter = limiter(6, 3, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", null);
+        }
+        now += 10 * SECOND;
+        assertEquals(0, limiter.tryAcquire("alice", null));
+        assertTrue(limiter.tryAcquire("alice", null) > 0);
+
+        now += 60 * SECOND;  // idle long enough to be full again, but never above the burst
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", null), "request " + i);
+        }
+        assertTrue(limiter.tryAcquire("alice", null) > 0);
+    }
+
+    @Test
+    void addressBucketHasItsOwnLimits() {
+        RateLimiter limiter = limiter(6, 1, 6, 2);
+        assertEquals(0, limiter.tryAcquire("alice", "10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("bob", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("carol", "10.0.0.1") > 0, "address burst of 2 is used up");
+        assertEquals(0, limiter.tryAcquire("dave", "10.0.0.2"));
+    }
+
+    @Test
+    void zeroAddressRateTurnsTheAddressCheckOff() {
+        RateLimiter limiter = limiter(6, 1, 0, 0);
+        for (String user : new String[] {"alice", "bob", "carol", "dave"}) {
+            assertEquals(0, limiter.tryAcquire(user, "10.0.0.1"), user);
+        }
+    }
+
+    @Test
+    void zeroUserRateTurnsTheUserCheckOff() {
+        RateLimiter limiter = limiter(0, 0, 6, 2);
+        assertEquals(0, limiter.tryAcquire("alice", null));
+        assertEquals(0, limiter.tryAcquire("alice", "10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("alice", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("alice", "10.0.0.1") > 0, "the address check still applies");
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(-1, 3, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> limiter(6, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> limiter(6, 3, 6, 0));
+    }
+
+    @Test
+    void evictIdleDropsOnlyFullBuckets() {
+        RateLimiter limiter = limiter(6, 3, 6, 3);
+        limiter.tryAcquire("alice", "10.0.0.1");
+        now += 5 * SECOND;
+        limiter.tryAcquire("bob", "10.0.0.2");
+        assertEquals(4, limiter.bucketCount());
+
+        now += 6 * SECOND;  // alice's token is back, bob's is not
+        limiter.evictIdle();
+        assertEquals(2, limiter.bucketCount());
+
+        now += 10 * SECOND;
+        limiter.evictIdle();
+        assertEquals(0, limiter.bucketCount());
+    }
+
+    @Test
+    @Timeout(30)
+    void evictionRacingRequestsNeverRefillsABucket() throws InterruptedException {
+        // The clock stands still, so nothing refills: each user gets exactly the burst, however
+        // evictions interleave with the requests.
+        RateLimiter limiter = limiter(6, 2, 0, 0);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread evictor = new Thread(() -> {
+            while (!done.get()) {
+                limiter.evictIdle();
+            }
+        });
+        evictor.start();
+        try {
+            for (int user = 0; user < 20_000; user++) {
+                int allowed = 0;
+                for (int i = 0; i < 3; i++) {
+                    if (limiter.tryAcquire("user-" + user, null) == 0) {
+                        allowed++;
+                    }
+                }
+                assertEquals(2, allowed, "user-" + user);
+            }
+        } finally {
+            done.set(true);
+            evictor.join();
+        }
+    }
+
+    @Test
+    void countsAllowedAndThrottledRequests() {
+        RateLimiter limiter = limiter(6, 1, 0, 0);
+        limiter.tryAcquire("alice", null);
+        limiter.tryAcquire("alice", null);
+        assertEquals(1.0, registry.get("forum.ratelimit.requests").tag("outcome", "allowed").counter().count());
+        assertEquals(1.0, registry.get("forum.ratelimit.requests").tag("outcome", "throttled").counter().count());
+    }
+}
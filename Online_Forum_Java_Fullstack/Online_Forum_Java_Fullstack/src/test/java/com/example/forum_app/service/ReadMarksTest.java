@@ -0,0 +1,176 @@
+package com.example.forum_app.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times are plain numbers here; ReadTracker feeds epoch milliseconds. No horizon unless stated.
+ */
+class ReadMarksTest {
+
+    private static final long NO_HORIZON = 0;
+    private static final long CATEGORY = 7;
+
+    @Test
+    void threadIsUnreadUntilItsLatestActivityWasSeen() {
+        ReadMarks marks = new ReadMarks(1_000);
+        assertFalse(marks.isUnread(1, CATEGORY, 900, NO_HORIZON), "older than the baseline");
+        assertTrue(marks.isUnread(1, CATEGORY, 1_100, NO_HORIZON));
+
+        assertTrue(marks.markThread(1, 1_100));
+        assertFalse(marks.isUnread(1, CATEGORY, 1_100, NO_HORIZON));
+        assertTrue(marks.isUnread(1, CATEGORY, 1_200, NO_HORIZON), "new reply since");
+        assertTrue(marks.isUnread(2, CATEGORY, 1_100, NO_HORIZON), "other threads are unaffected");
+    }
+
+    @Test
+    void markThreadOnlyMovesForward() {
+        ReadMarks marks = new ReadMarks(1_000);
+        assertFalse(marks.markThread(1, 1_000), "not after the baseline");
+        assertTrue(marks.markThread(1, 1_500));
+        long version = marks.version();
+        assertFalse(marks.markThread(1, 1_200));
+        assertEquals(version, marks.version());
+        assertFalse(marks.isUnread(1, CATEGORY, 1_500, NO_HORIZON));
+    }
+
+    @Test
+    void horizonCountsOldActivityAsRead() {
+        ReadMarks marks = new ReadMarks(1_000);
+        assertFalse(marks.isUnread(1, CATEGORY, 1_500, 2_000));
+        assertTrue(marks.isUnread(1, CATEGORY, 2_500, 2_000));
+    }
+
+    @Test
+    void categoryWatermarkCoversItsThreadsOnly() {
+        ReadMarks marks = new ReadMarks(1_000);
+        marks.markCategory(CATEGORY, 2_000);
+        assertFalse(marks.isUnread(1, CATEGORY, 1_900, NO_HORIZON));
+        assertTrue(marks.isUnread(1, CATEGORY, 2_100, NO_HORIZON));
+        assertTrue(marks.isUnread(1, CATEGORY + 1, 1_900, NO_HORIZON));
+    }
+
+    @Test
+    void markAllReadRaisesTheBaselineAndDropsEverythingBelow() {
+        ReadMarks marks = new ReadMarks(1_000);
+        marks.markThread(1, 1_500);
+        marks.markCategory(CATEGORY, 1_600);
+        marks.markCategory(null, 2_000);
+        assertEquals(0, marks.size());
+        assertFalse(marks.isUnread(9, CATEGORY + 1, 2_000, NO_HORIZON));
+        assertTrue(marks.isUnread(9, CATEGORY + 1, 2_001, NO_HORIZON));
+
+        marks.markCategory(null, 1_500);  // never lowers the baseline
+        assertFalse(marks.isUnread(9, CATEGORY + 1, 1_800, NO_HORIZON));
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        ReadMarks marks = new ReadMarks(1_700_000_000_000L);
+        marks.markCategory(42L, 1_600_000_000_000L);  // below the baseline: negative delta
+        marks.markCategory(3L, 1_700_000_500_000L);
+        marks.markThread(900_000, 1_700_000_000_123L);
+        marks.markThread(5, 1_700_000_100_000L);
+        marks.markThread(77, 1_700_000_000_001L);
+
+        ReadMarks decoded = ReadMarks.decode(marks.encode());
+
+        assertEquals(3, decoded.size());
+        assertArrayEquals(marks.encode(), decoded.encode());
+        for (long threadId : new long[] {5, 77, 900_000}) {
+            long seen = threadId == 5 ? 1_700_000_100_000L : threadId == 77 ? 1_700_000_000_001L : 1_700_000_000_123L;
+            assertFalse(decoded.isUnread(threadId, 1, seen, NO_HORIZON), "thread " + threadId);
+            assertTrue(decoded.isUnread(threadId, 1, seen + 1, NO_HORIZON), "thread " + threadId);
+        }
+        assertFalse(decoded.isUnread(1, 3, 1_700_000_500_000L, NO_HORIZON));
+        assertTrue(decoded.isUnread(1, 42, 1_700_000_000_001L, NO_HORIZON));
+    }
+
+    @Test
+    void encodeDecodeEmpty() {
+        ReadMarks decoded = ReadMarks.decode(new ReadMarks(0).encode());
+        assertEquals(0, decoded.size());
+        assertTrue(decoded.isUnread(1, CATEGORY, 1, NO_HORIZON));
+    }
+
+    @Test
+    void decodeRejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> ReadMarks.decode(new byte[] {99, 0, 0, 0}));
+    }
+
+    @Test
+    void pruneDropsMarksAtOrBelowTheHorizon() {
+        ReadMarks marks = new ReadMarks(1_000);
+        marks.markThread(1, 1_500);
+        marks.markThread(2, 2_000);
+        marks.markThread(3, 2_500);
+        long version = marks.version();
+
+        marks.prune(2_000, 100);
+
+        assertEquals(1, marks.size());
+        assertTrue(marks.version() > version);
+        assertFalse(marks.isUnread(3, CATEGORY, 2_500, 2_000));
+
+        version = marks.version();
+        marks.prune(2_000, 100);
+        assertEquals(version, marks.version(), "nothing left to prune");
+    }
+
+    @Test
+    void pruneKeepsTheNewestMaxMarks() {
+        ReadMarks marks = new ReadMarks(0);
+        for (int id = 1; id <= 10; id++) {
+            marks.markThread(id, 100L * (11 - id));  // thread 1 is the newest
+        }
+        marks.prune(NO_HORIZON, 4);
+
+        assertEquals(4, marks.size());
+        for (int id = 1; id <= 10; id++) {
+            long seen = 100L * (11 - id);
+            assertEquals(id > 4, marks.isUnread(id, CATEGORY, seen, NO_HORIZON), "thread " + id);
+        }
+    }
+
+    @Test
+    void mergeKeepsTheLaterMarkOfEither() {
+        ReadMarks here = new ReadMarks(1_000);
+        here.markThread(1, 1_500);
+        here.markThread(2, 1_200);
+        here.markCategory(CATEGORY, 1_100);
+        ReadMarks stored = new ReadMarks(1_000);
+        stored.markThread(2, 1_800);
+        stored.markThread(3, 1_300);
+        stored.markCategory(CATEGORY, 1_400);
+
+        assertTrue(here.merge(stored));
+
+        assertEquals(3, here.size());
+        assertFalse(here.isUnread(1, 1, 1_500, NO_HORIZON));
+        assertFalse(here.isUnread(2, 1, 1_800, NO_HORIZON));
+        assertFalse(here.isUnread(3, 1, 1_300, NO_HORIZON));
+        assertFalse(here.isUnread(9, CATEGORY, 1_400, NO_HORIZON));
+        assertFalse(here.merge(stored), "already contains everything");
+    }
+
+    @Test
+    void mergeTakesTheLaterBaselineAndDropsWhatItCovers() {
+        ReadMarks here = new ReadMarks(1_000);
+        here.markThread(1, 1_500);
+        here.markThread(2, 2_500);
+        ReadMarks stored = new ReadMarks(1_000);
+        stored.markCategory(null, 2_000);
+
+        assertTrue(here.merge(stored));
+
+        assertEquals(1, here.size());
+        assertFalse(here.isUnread(5, CATEGORY, 2_000, NO_HORIZON));
+        assertFalse(here.isUnread(2, CATEGORY, 2_500, NO_HORIZON));
+        assertArrayEquals(here.encode(), ReadMarks.decode(here.encode()).encode());
+    }
+}